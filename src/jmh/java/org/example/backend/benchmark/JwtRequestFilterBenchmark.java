@@ -0,0 +1,68 @@
+package org.example.backend.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import org.example.backend.configs.JwtRequestFilter;
+import org.example.backend.configs.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link JwtRequestFilter}. Compare with {@link LegacyJwtRequestFilterBenchmark},
+ * which runs the same requests through the filter as it was before. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtRequestFilterBenchmark {
+
+    private final JwtRequestFilter filter = new JwtRequestFilter();
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = Jwts.builder()
+                .setSubject("benchmark@example.com")
+                .claim("roles", List.of("ROLE_USER"))
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(JwtTokenProvider.key)
+                .compact();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse bearerToken() throws Exception {
+        return filter(request("Bearer " + token));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymous() throws Exception {
+        return filter(request(null));
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservations");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.backend.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.backend.configs.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for {@link JwtRequestFilterBenchmark}: the same requests through the filter as it was before
+ * the parser was reused, authentications were cached and the request log was sampled. It builds a parser
+ * and verifies the token on every request and logs the header, the raw token and the user synchronously
+ * at INFO. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LegacyJwtRequestFilterBenchmark {
+
+    private final LegacyJwtRequestFilter filter = new LegacyJwtRequestFilter();
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = Jwts.builder()
+                .setSubject("benchmark@example.com")
+                .claim("roles", List.of("ROLE_USER"))
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(JwtTokenProvider.key)
+                .compact();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse bearerToken() throws Exception {
+        return filter(request("Bearer " + token));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymous() throws Exception {
+        return filter(request(null));
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservations");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    /**
+     * JwtRequestFilter copied from the version before it was optimized, without Lombok.
+     */
+    static class LegacyJwtRequestFilter extends OncePerRequestFilter {
+
+        private static final Logger log = LoggerFactory.getLogger(LegacyJwtRequestFilter.class);
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+
+            Optional<String> jwt = getToken(request);
+
+            if (jwt.isEmpty()) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            try {
+                Claims claims = parseToken(jwt.get());
+
+                SecurityContext securityContext = SecurityContextHolder.getContext();
+                securityContext.setAuthentication(buildAuthenticationToken(claims));
+                log.info("Authentication set for user: {}", claims.getSubject());
+            } catch (Exception e) {
+                log.error("Error parsing JWT token: {}", e.getMessage());
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.getWriter().write("Invalid JWT token");
+                return;
+            }
+
+            filterChain.doFilter(request, response);
+        }
+
+        private Optional<String> getToken(HttpServletRequest request) {
+            String header = request.getHeader("Authorization");
+            String headerPrefix = "Bearer ";
+            log.info("Authorization header: {}", header);
+            if (header == null || !header.startsWith(headerPrefix)) {
+                log.warn("No Bearer token found in request.");
+                return Optional.empty();
+            }
+            log.info("Token found in request: {}", header.substring(headerPrefix.length()));
+            return Optional.of(header.substring(headerPrefix.length()));
+        }
+
+        private Claims parseToken(String token) {
+            return Jwts.parserBuilder()
+                    .setSigningKey(JwtTokenProvider.key)
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+        }
+
+        private UsernamePasswordAuthenticationToken buildAuthenticationToken(Claims claims) {
+            List<String> roles = (List<String>) claims.get("roles");
+
+            List<SimpleGrantedAuthority> authorities = roles.stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
+
+            return new UsernamePasswordAuthenticationToken(claims.getSubject(), null, authorities);
+        }
+    }
+}
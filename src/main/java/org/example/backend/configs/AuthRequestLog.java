@@ -0,0 +1,60 @@
+package org.example.backend.configs;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request log of {@link JwtRequestFilter}.
+ * <p>
+ * Events are written as key-value pairs to their own logger, which logback-spring.xml routes through
+ * an asynchronous appender. Tokens are only ever logged as a short fingerprint of their SHA-256 hash.
+ * Successful authentications are sampled, rejections are always logged and anonymous requests only
+ * at debug level. The SLF4J fluent API skips building the event when the level is disabled.
+ */
+final class AuthRequestLog {
+
+    private static final Logger REQUEST_LOG = LoggerFactory.getLogger(AuthRequestLog.class);
+
+    // One in this many successful authentications is logged
+    private static final int AUTHENTICATED_SAMPLE_RATE = 100;
+    private static final int FINGERPRINT_LENGTH = 12;
+
+    private AuthRequestLog() {
+    }
+
+    static void anonymous(HttpServletRequest request) {
+        REQUEST_LOG.atDebug()
+                .addKeyValue("method", request::getMethod)
+                .addKeyValue("path", request::getRequestURI)
+                .log("Request without bearer token");
+    }
+
+    static void authenticated(HttpServletRequest request, String user, String tokenHash) {
+        if (!REQUEST_LOG.isInfoEnabled() || ThreadLocalRandom.current().nextInt(AUTHENTICATED_SAMPLE_RATE) != 0) {
+            return;
+        }
+        REQUEST_LOG.atInfo()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("user", user)
+                .addKeyValue("token", fingerprint(tokenHash))
+                .addKeyValue("sampleRate", AUTHENTICATED_SAMPLE_RATE)
+                .log("Bearer token accepted");
+    }
+
+    static void rejected(HttpServletRequest request, String tokenHash, Exception cause) {
+        REQUEST_LOG.atWarn()
+                .addKeyValue("method", request::getMethod)
+                .addKeyValue("path", request::getRequestURI)
+                .addKeyValue("token", () -> fingerprint(tokenHash))
+                .addKeyValue("reason", () -> cause.getClass().getSimpleName())
+                .log("Bearer token rejected");
+    }
+
+    private static String fingerprint(String tokenHash) {
+        return tokenHash.substring(0, FINGERPRINT_LENGTH);
+    }
+}
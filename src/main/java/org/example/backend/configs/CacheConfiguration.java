@@ -0,0 +1,47 @@
+package org.example.backend.configs;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Bounded in-process caches. Each cache is built from its own Caffeine spec in application.properties
+ * and records statistics, which Actuator publishes as the cache.gets and cache.evictions metrics.
+ * <p>
+ * The cache advice runs outside the transaction advice, so evictions and updates of a transactional
+ * method happen after its transaction commits and cache hits do not open a transaction.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfiguration {
+
+    public static final String ROOM_SEARCH = "roomSearch";
+    public static final String ROOMS = "rooms";
+    public static final String AMENITIES = "amenities";
+    public static final String ROOM_AMENITIES = "roomAmenities";
+    public static final String ROOM_PRICES = "roomPrices";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${hotel.cache.room-search.spec}") String roomSearchSpec,
+                                     @Value("${hotel.cache.rooms.spec}") String roomsSpec,
+                                     @Value("${hotel.cache.amenities.spec}") String amenitiesSpec,
+                                     @Value("${hotel.cache.room-amenities.spec}") String roomAmenitiesSpec,
+                                     @Value("${hotel.cache.room-prices.spec}") String roomPricesSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // No caches are created on the fly, a typo in a cache name fails instead of growing an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(ROOM_SEARCH, Caffeine.from(roomSearchSpec).recordStats().build());
+        cacheManager.registerCustomCache(ROOMS, Caffeine.from(roomsSpec).recordStats().build());
+        cacheManager.registerCustomCache(AMENITIES, Caffeine.from(amenitiesSpec).recordStats().build());
+        cacheManager.registerCustomCache(ROOM_AMENITIES, Caffeine.from(roomAmenitiesSpec).recordStats().build());
+        cacheManager.registerCustomCache(ROOM_PRICES, Caffeine.from(roomPricesSpec).recordStats().build());
+        return cacheManager;
+    }
+}
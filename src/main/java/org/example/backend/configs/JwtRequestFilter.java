@@ -1,6 +1,10 @@
 package org.example.backend.configs;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,7 +12,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -18,15 +22,51 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 
-@Slf4j
 @Component
 @AllArgsConstructor
-@Order(Integer.MIN_VALUE)
+// Right after CorrelationIdFilter, so authentication events carry the correlation id
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
 public class JwtRequestFilter extends OncePerRequestFilter {
 
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    // Parsers are immutable and thread-safe, so the signing key is set up once
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(JwtTokenProvider.key)
+            .build();
+
+    // Shared by every instance of the filter, keyed by the SHA-256 of the token and expiring with the token
+    private static final Cache<String, CachedAuthentication> AUTHENTICATIONS = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_TOKENS)
+            .expireAfter(new Expiry<String, CachedAuthentication>() {
+                @Override
+                public long expireAfterCreate(String tokenHash, CachedAuthentication cached, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), cached.expiresAt()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String tokenHash, CachedAuthentication cached, long currentTime,
+                                              long currentDuration) {
+                    return expireAfterCreate(tokenHash, cached, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String tokenHash, CachedAuthentication cached, long currentTime,
+                                            long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -35,19 +75,20 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         Optional<String> jwt = getToken(request);
 
         if (jwt.isEmpty()) {
+            AuthRequestLog.anonymous(request);
             filterChain.doFilter(request, response);
             return;
         }
+        String tokenHash = hash(jwt.get());
         try {
-            Claims claims = parseToken(jwt.get());
+            UsernamePasswordAuthenticationToken authentication = authenticate(jwt.get(), tokenHash);
 
             // Set the authentication context
             SecurityContext securityContext = SecurityContextHolder.getContext();
-            securityContext.setAuthentication(buildAuthenticationToken(claims));
-            log.info("Authentication set for user: {}", claims.getSubject());
+            securityContext.setAuthentication(authentication);
+            AuthRequestLog.authenticated(request, authentication.getName(), tokenHash);
         } catch (Exception e) {
-            // Log token parsing or authentication failures (optional)
-            log.error("Error parsing JWT token: {}", e.getMessage());
+            AuthRequestLog.rejected(request, tokenHash, e);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.getWriter().write("Invalid JWT token");
             return;
@@ -59,21 +100,42 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     private Optional<String> getToken(HttpServletRequest request) {
         String header = request.getHeader("Authorization");
         String headerPrefix = "Bearer ";
-        log.info("Authorization header: {}", header);
         if (header == null || !header.startsWith(headerPrefix)) {
-            log.warn("No Bearer token found in request.");
             return Optional.empty();
         }
-        log.info("Token found in request: {}", header.substring(headerPrefix.length()));
         return Optional.of(header.substring(headerPrefix.length()));
     }
 
+    /**
+     * Returns the authentication of a token, verifying its signature and reading its claims only
+     * the first time the token is seen. Tokens without an expiration are never cached.
+     */
+    private UsernamePasswordAuthenticationToken authenticate(String token, String tokenHash) {
+        CachedAuthentication cached = AUTHENTICATIONS.getIfPresent(tokenHash);
+        if (cached != null) {
+            return cached.authentication();
+        }
+
+        Claims claims = parseToken(token);
+        UsernamePasswordAuthenticationToken authentication = buildAuthenticationToken(claims);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            AUTHENTICATIONS.put(tokenHash, new CachedAuthentication(authentication, expiration.toInstant()));
+        }
+        return authentication;
+    }
+
     private Claims parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(JwtTokenProvider.key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return PARSER.parseClaimsJws(token).getBody();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     private UsernamePasswordAuthenticationToken buildAuthenticationToken(Claims claims) {
@@ -86,4 +148,6 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         return new UsernamePasswordAuthenticationToken(claims.getSubject(), null, authorities);
     }
 
+    private record CachedAuthentication(UsernamePasswordAuthenticationToken authentication, Instant expiresAt) {
+    }
 }
@@ -43,6 +43,8 @@ public class SecurityConfiguration {
                         .requestMatchers("/amenities/private/**").hasRole("ADMIN")
                         .requestMatchers("/reservations/**").permitAll()
                         .requestMatchers("/reservations/client/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -56,8 +58,9 @@ public class SecurityConfiguration {
                             "http://193.40.255.16",
                             "http://frontend:80"));
                     config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-                    config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "X-Requested-With"));
-                    config.setExposedHeaders(List.of("Authorization"));
+                    config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept", "X-Requested-With",
+                            "X-Correlation-Id"));
+                    config.setExposedHeaders(List.of("Authorization", "X-Next-Cursor", "X-Correlation-Id"));
                     config.setAllowCredentials(true);
                     return config;
                 }))
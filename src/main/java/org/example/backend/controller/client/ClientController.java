@@ -8,9 +8,14 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.backend.dtos.ClientDTO;
+import org.example.backend.enums.StreamFormat;
 import org.example.backend.service.client.ClientService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -33,6 +38,29 @@ public class ClientController {
         return ResponseEntity.ok(clients);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of clients", description = "Retrieve one page of clients")
+    @ApiResponse(responseCode = "200", description = "Page of clients")
+    @ApiResponse(responseCode = "400", description = "Invalid sort property")
+    public ResponseEntity<Page<ClientDTO>> getClientsPage(
+            @PageableDefault(size = 20, sort = "id") @Parameter(description = "Pagination and sorting details") Pageable pageable) {
+        log.info("Fetching clients with pagination: {}", pageable);
+        Page<ClientDTO> clients = clientService.getClientsPage(pageable);
+        log.info("Found {} of {} clients", clients.getNumberOfElements(), clients.getTotalElements());
+        return ResponseEntity.ok(clients);
+    }
+
+    @GetMapping("/stream")
+    @Operation(summary = "Stream all clients",
+            description = "Streams every client as newline delimited JSON or as a JSON array while it is read from the database")
+    @ApiResponse(responseCode = "200", description = "All clients")
+    public ResponseEntity<StreamingResponseBody> streamClients(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "Output format, NDJSON or JSON") StreamFormat format) {
+        log.info("Streaming all clients as {}", format);
+        StreamingResponseBody body = out -> clientService.writeAllClients(format, out);
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get a client by ID", description = "Retrieve a client by their unique ID")
     @ApiResponse(responseCode = "200", description = "Client found")
@@ -55,9 +83,9 @@ public class ClientController {
     public ResponseEntity<ClientDTO> updateClient(
             @PathVariable @Parameter(description = "Client ID") Long id,
             @RequestBody @Valid @Parameter(description = "Updated client details") ClientDTO updatedClientDTO) {
-        log.info("Updating client with ID: {}. New data: {}", id, updatedClientDTO);
+        log.debug("Updating client with ID: {}. New data: {}", id, updatedClientDTO);
         ClientDTO updatedClient = clientService.updateClient(id, updatedClientDTO);
-        log.info("Client updated successfully: {}", updatedClient);
+        log.debug("Client updated successfully: {}", updatedClient);
         return ResponseEntity.ok(updatedClient);    }
 
     @DeleteMapping("/{id}")
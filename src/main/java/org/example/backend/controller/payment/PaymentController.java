@@ -1,22 +1,32 @@
 package org.example.backend.controller.payment;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.backend.criteria.PaymentSearchCriteria;
 import org.example.backend.dtos.PaymentDTO;
+import org.example.backend.enums.StreamFormat;
 import org.example.backend.service.payment.PaymentService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -34,7 +44,7 @@ public class PaymentController {
     @ApiResponse(responseCode = "200", description = "Payment created successfully")
     @ApiResponse(responseCode = "400", description = "Invalid payment data")
     public ResponseEntity<PaymentDTO> createPayment(@Valid @RequestBody PaymentDTO paymentDTO) {
-        log.info("Received request to create payment: {}", paymentDTO);
+        log.debug("Received request to create payment: {}", paymentDTO);
         PaymentDTO createdPayment = paymentService.createPayment(paymentDTO);
         log.info("Payment created successfully with ID: {}", createdPayment.getId());
         return ResponseEntity.ok(createdPayment);
@@ -50,6 +60,31 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Retrieve a page of payments", description = "Fetches one page of payments filtered by status and payment date.")
+    @ApiResponse(responseCode = "200", description = "Page of payments")
+    @ApiResponse(responseCode = "400", description = "Invalid date range or sort property")
+    public ResponseEntity<Page<PaymentDTO>> getPaymentsPage(
+            @ModelAttribute @Parameter(description = "Filters for payments") PaymentSearchCriteria criteria,
+            @PageableDefault(size = 20, sort = {"paymentDate", "id"}, direction = Sort.Direction.DESC)
+            @Parameter(description = "Pagination and sorting details") Pageable pageable) {
+        log.info("Received request to retrieve payments with criteria: {} and pagination: {}", criteria, pageable);
+        Page<PaymentDTO> payments = paymentService.searchPayments(criteria, pageable);
+        log.info("Successfully retrieved {} of {} payment records.", payments.getNumberOfElements(), payments.getTotalElements());
+        return ResponseEntity.ok(payments);
+    }
+
+    @GetMapping("/stream")
+    @Operation(summary = "Stream all payments",
+            description = "Streams every payment as newline delimited JSON or as a JSON array while it is read from the database")
+    @ApiResponse(responseCode = "200", description = "All payments")
+    public ResponseEntity<StreamingResponseBody> streamPayments(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "Output format, NDJSON or JSON") StreamFormat format) {
+        log.info("Streaming all payments as {}", format);
+        StreamingResponseBody body = out -> paymentService.writeAllPayments(format, out);
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Retrieve payment by ID", description = "Fetches a single payment record by its ID.")
     @ApiResponse(responseCode = "200", description = "Payment retrieved successfully")
@@ -67,9 +102,9 @@ public class PaymentController {
     @ApiResponse(responseCode = "400", description = "Invalid payment data")
     @ApiResponse(responseCode = "404", description = "Payment not found")
     public ResponseEntity<PaymentDTO> updatePayment(@PathVariable Long id, @Valid @RequestBody PaymentDTO paymentDTO) {
-        log.info("Received request to update payment with ID: {}. New data: {}", id, paymentDTO);
+        log.debug("Received request to update payment with ID: {}. New data: {}", id, paymentDTO);
         PaymentDTO updatedPayment = paymentService.updatePayment(id, paymentDTO);
-        log.info("Payment updated successfully: {}", updatedPayment);
+        log.debug("Payment updated successfully: {}", updatedPayment);
         return ResponseEntity.ok(updatedPayment);
     }
 
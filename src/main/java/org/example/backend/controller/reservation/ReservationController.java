@@ -7,10 +7,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.backend.criteria.ReservationSearchCriteria;
 import org.example.backend.dtos.ReservationDTO;
+import org.example.backend.enums.StreamFormat;
 import org.example.backend.service.reservation.ReservationService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -29,9 +36,9 @@ public class ReservationController {
     @ApiResponse(responseCode = "400", description = "Invalid reservation data")
     public ResponseEntity<ReservationDTO> createReservation(
             @RequestBody @Valid @Parameter(description = "Reservation details") ReservationDTO reservationDTO) {
-        log.info("Received request to create a reservation: {}", reservationDTO);
+        log.debug("Received request to create a reservation: {}", reservationDTO);
         ReservationDTO createdReservation = reservationService.createReservation(reservationDTO);
-        log.info("Reservation created successfully: {}", createdReservation);
+        log.debug("Reservation created successfully: {}", createdReservation);
         return ResponseEntity.ok(createdReservation);    }
 
     @GetMapping
@@ -44,6 +51,48 @@ public class ReservationController {
         return ResponseEntity.ok(reservations);
     }
 
+    @GetMapping("/stream")
+    @Operation(summary = "Stream all reservations",
+            description = "Streams every reservation as newline delimited JSON or as a JSON array while it is read from the database")
+    @ApiResponse(responseCode = "200", description = "All reservations")
+    public ResponseEntity<StreamingResponseBody> streamReservations(
+            @RequestParam(defaultValue = "NDJSON") @Parameter(description = "Output format, NDJSON or JSON") StreamFormat format) {
+        log.info("Streaming all reservations as {}", format);
+        StreamingResponseBody body = out -> reservationService.writeAllReservations(format, out);
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of reservations",
+            description = "Retrieve one page of reservations filtered by status, date window, room and client")
+    @ApiResponse(responseCode = "200", description = "Page of reservations")
+    @ApiResponse(responseCode = "400", description = "Invalid date window or sort property")
+    public ResponseEntity<Page<ReservationDTO>> getReservationsPage(
+            @ModelAttribute @Parameter(description = "Filters for reservations") ReservationSearchCriteria criteria,
+            @PageableDefault(size = 20, sort = {"checkInDate", "id"}, direction = Sort.Direction.DESC)
+            @Parameter(description = "Pagination and sorting details") Pageable pageable) {
+        log.info("Fetching reservations with criteria: {} and pagination: {}", criteria, pageable);
+        Page<ReservationDTO> reservations = reservationService.searchReservations(criteria, pageable);
+        log.info("Found {} of {} reservations", reservations.getNumberOfElements(), reservations.getTotalElements());
+        return ResponseEntity.ok(reservations);
+    }
+
+    @GetMapping("/client/{clientId}/page")
+    @Operation(summary = "Get a page of reservations by client ID",
+            description = "Retrieve one page of the reservation history of a specific client")
+    @ApiResponse(responseCode = "200", description = "Page of reservations for the client")
+    @ApiResponse(responseCode = "404", description = "Client not found")
+    public ResponseEntity<Page<ReservationDTO>> getReservationsPageByClientId(
+            @PathVariable @Parameter(description = "Client ID") Long clientId,
+            @PageableDefault(size = 20, sort = {"checkInDate", "id"}, direction = Sort.Direction.DESC)
+            @Parameter(description = "Pagination and sorting details") Pageable pageable) {
+        log.info("Fetching reservations for client ID: {} with pagination: {}", clientId, pageable);
+        Page<ReservationDTO> reservations = reservationService.getReservationsByClientId(clientId, pageable);
+        log.info("Found {} of {} reservations for client ID: {}",
+                reservations.getNumberOfElements(), reservations.getTotalElements(), clientId);
+        return ResponseEntity.ok(reservations);
+    }
+
     @GetMapping("/client/{clientId}")
     @Operation(summary = "Get reservations by client ID", description = "Retrieve a list of reservations for a specific client")
     @ApiResponse(responseCode = "200", description = "List of reservations for the client")
@@ -64,9 +113,9 @@ public class ReservationController {
     public ResponseEntity<ReservationDTO> updateReservation(
             @PathVariable @Parameter(description = "Reservation ID") Long id,
             @RequestBody @Valid @Parameter(description = "Updated reservation details") ReservationDTO updatedReservationDTO) {
-        log.info("Updating reservation with ID: {}. New data: {}", id, updatedReservationDTO);
+        log.debug("Updating reservation with ID: {}. New data: {}", id, updatedReservationDTO);
         ReservationDTO updatedReservation = reservationService.updateReservation(id, updatedReservationDTO);
-        log.info("Reservation updated successfully: {}", updatedReservation);
+        log.debug("Reservation updated successfully: {}", updatedReservation);
         return ResponseEntity.ok(updatedReservation);    }
 
     @DeleteMapping("/{id}")
@@ -33,9 +33,9 @@ public class AmenityController {
     @ApiResponse(responseCode = "400", description = "Invalid amenity data")
     public ResponseEntity<AmenityDTO> createAmenity(
             @RequestBody @Valid @Parameter(description = "Amenity details") AmenityDTO amenityDTO) {
-        log.info("Received request to create an amenity: {}", amenityDTO);
+        log.debug("Received request to create an amenity: {}", amenityDTO);
         AmenityDTO createdAmenity = amenityService.createAmenity(amenityDTO);
-        log.info("Amenity created successfully: {}", createdAmenity);
+        log.debug("Amenity created successfully: {}", createdAmenity);
         return ResponseEntity.ok(createdAmenity);
     }
 
@@ -60,9 +60,9 @@ public class AmenityController {
     public ResponseEntity<AmenityDTO> updateAmenity(
             @PathVariable @Parameter(description = "Amenity ID") Long id,
             @RequestBody @Valid @Parameter(description = "Updated amenity details") AmenityDTO updatedAmenityDTO) {
-        log.info("Updating amenity with ID: {}. New data: {}", id, updatedAmenityDTO);
+        log.debug("Updating amenity with ID: {}. New data: {}", id, updatedAmenityDTO);
         AmenityDTO updatedAmenity = amenityService.updateAmenity(id, updatedAmenityDTO);
-        log.info("Amenity updated successfully: {}", updatedAmenity);
+        log.debug("Amenity updated successfully: {}", updatedAmenity);
         return ResponseEntity.ok(updatedAmenity);
     }
 
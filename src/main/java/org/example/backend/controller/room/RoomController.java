@@ -9,18 +9,27 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.backend.criteria.RoomSearchCriteria;
+import org.example.backend.criteria.RoomSearchCursor;
 import org.example.backend.dtos.AmenityDTO;
+import org.example.backend.dtos.DateRangeDTO;
 import org.example.backend.dtos.MultipleRoomsDTO;
+import org.example.backend.dtos.MultipleRoomsResultDTO;
+import org.example.backend.dtos.RoomDeletionResultDTO;
+import org.example.backend.dtos.RoomWithAmenitiesDTO;
 import org.example.backend.service.reservation.ReservationService;
 import org.example.backend.service.room.RoomAmenityService;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import org.example.backend.dtos.RoomDTO;
 import org.example.backend.service.room.RoomService;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -35,6 +44,8 @@ public class RoomController {
     private final RoomService roomService;
     private final ReservationService reservationService;
     private final RoomAmenityService roomAmenityService;
+    private static final String NDJSON = "application/x-ndjson";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping("/private")
     @Operation(
@@ -44,9 +55,9 @@ public class RoomController {
     @ApiResponse(responseCode = "200", description = "Room created successfully")
     @ApiResponse(responseCode = "400", description = "Invalid room data")
     public ResponseEntity<RoomDTO> createRoom(@RequestBody @Valid @Parameter(description = "Room details") RoomDTO roomDTO) {
-        log.info("Received request to create a room: {}", roomDTO);
+        log.debug("Received request to create a room: {}", roomDTO);
         RoomDTO createdRoom = roomService.createRoom(roomDTO);
-        log.info("Room created successfully: {}", createdRoom);
+        log.debug("Room created successfully: {}", createdRoom);
         return ResponseEntity.ok(createdRoom);    }
 
     @PostMapping("/private/create-multiple")
@@ -72,6 +83,30 @@ public class RoomController {
         return ResponseEntity.ok(createdRooms);
     }
 
+    @PostMapping("/private/bulk")
+    @Operation(
+            summary = "Create a block of rooms",
+            description = "Create a series of rooms starting from a specific room number in one transaction, "
+                    + "skipping room numbers that are already taken",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Rooms created, with the skipped room numbers")
+    @ApiResponse(responseCode = "400", description = "Invalid room data")
+    public ResponseEntity<MultipleRoomsResultDTO> createRoomBlock(
+            @RequestBody @Valid MultipleRoomsDTO createMultipleRoomsDTO) {
+        log.info("Received request to create a block of {} rooms starting from room number: {}",
+                createMultipleRoomsDTO.getNumberOfRooms(), createMultipleRoomsDTO.getStartRoomNumber());
+
+        MultipleRoomsResultDTO result = roomService.createRoomBlock(
+                createMultipleRoomsDTO.getStartRoomNumber(),
+                createMultipleRoomsDTO.getNumberOfRooms(),
+                createMultipleRoomsDTO.getPrice(),
+                createMultipleRoomsDTO.getType()
+        );
+        log.info("{} rooms created, {} skipped.", result.getCreated().size(), result.getSkipped().size());
+
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
     @Operation(summary = "Get all rooms", description = "Retrieve a list of all rooms")
     @ApiResponse(responseCode = "200", description = "List of rooms")
@@ -82,6 +117,18 @@ public class RoomController {
         return ResponseEntity.ok(rooms);
     }
 
+    @GetMapping("/with-amenities")
+    @Operation(summary = "Get rooms with their amenities",
+            description = "Retrieve one slice of rooms, each with its amenities, using two queries whatever the page size")
+    @ApiResponse(responseCode = "200", description = "Slice of rooms with their amenities")
+    public ResponseEntity<Slice<RoomWithAmenitiesDTO>> getRoomsWithAmenities(
+            @PageableDefault(size = 20, sort = "id") @Parameter(description = "Pagination and sorting details") Pageable pageable) {
+        log.info("Fetching rooms with amenities with pagination: {}", pageable);
+        Slice<RoomWithAmenitiesDTO> rooms = roomAmenityService.getRoomsWithAmenities(pageable);
+        log.info("Found {} rooms with amenities", rooms.getNumberOfElements());
+        return ResponseEntity.ok(rooms);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get room by ID", description = "Retrieve room details by its unique ID")
     @ApiResponse(responseCode = "200", description = "Room found")
@@ -91,7 +138,7 @@ public class RoomController {
         log.info("Fetching room with ID: {}", id);
         RoomDTO room = roomService.getRoom(id);
         if (room != null) {
-            log.info("Room found: {}", room);
+            log.debug("Room found: {}", room);
         } else {
             log.warn("Room with ID {} not found", id);
         }
@@ -108,9 +155,9 @@ public class RoomController {
     public ResponseEntity<RoomDTO> updateRoom(
             @PathVariable @Parameter(description = "Room ID") Long id,
             @RequestBody @Valid @Parameter(description = "Updated room details") RoomDTO updatedRoomDTO) {
-        log.info("Updating room with ID: {}. New data: {}", id, updatedRoomDTO);
+        log.debug("Updating room with ID: {}. New data: {}", id, updatedRoomDTO);
         RoomDTO updatedRoom = roomService.updateRoom(id, updatedRoomDTO);
-        log.info("Room updated successfully: {}", updatedRoom);
+        log.debug("Room updated successfully: {}", updatedRoom);
         return ResponseEntity.ok(updatedRoom);    }
 
     @DeleteMapping("/private/{id}")
@@ -130,16 +177,16 @@ public class RoomController {
     @DeleteMapping("/private/delete-all")
     @Operation(
             summary = "Delete all rooms",
-            description = "Deletes all rooms from the system",
+            description = "Deletes all rooms without reservations and reports how many were deleted and kept",
             security = @SecurityRequirement(name = "bearerAuth"))
-    @ApiResponse(responseCode = "204", description = "All rooms deleted successfully")
+    @ApiResponse(responseCode = "200", description = "Rooms without reservations deleted")
     @ApiResponse(responseCode = "500", description = "Internal server error")
-    public ResponseEntity<Void> deleteAllRooms() {
+    public ResponseEntity<RoomDeletionResultDTO> deleteAllRooms() {
         try {
             log.info("Received request to delete all rooms.");
-            roomService.deleteAllRooms();
-            log.info("All rooms deleted successfully.");
-            return ResponseEntity.noContent().build();
+            RoomDeletionResultDTO result = roomService.deleteAllRooms();
+            log.info("{} rooms deleted, {} kept.", result.getDeleted(), result.getSkipped());
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
             log.error("Error deleting all rooms: {}", e.getMessage());
             return ResponseEntity.status(500).build();
@@ -147,15 +194,24 @@ public class RoomController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search rooms with criteria", description = "Search for rooms based on criteria like price and availability")
+    @Operation(summary = "Search rooms with criteria",
+            description = "Search for rooms based on criteria like price and availability. "
+                    + "When a cursor is given, pages are read by keyset and the next cursor is returned in the X-Next-Cursor header")
     @ApiResponse(responseCode = "200", description = "List of rooms based on search criteria")
+    @ApiResponse(responseCode = "400", description = "Invalid search cursor")
     public ResponseEntity<List<RoomDTO>> getRoomsBySearch(
             @ModelAttribute @Parameter(description = "Search criteria for rooms") RoomSearchCriteria criteria,
             @PageableDefault(size = 5) @Parameter(description = "Pagination details") Pageable pageable) {
         log.info("Searching for rooms with criteria: {} and pagination: {}", criteria, pageable);
         List<RoomDTO> rooms = roomService.getAllRooms(criteria, pageable);
         log.info("Found {} rooms matching criteria", rooms.size());
-        return ResponseEntity.ok(rooms);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (criteria.getCursor() != null && rooms.size() == pageable.getPageSize()) {
+            RoomDTO last = rooms.get(rooms.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, new RoomSearchCursor(last.getPrice(), last.getId()).encode());
+        }
+        return response.body(rooms);
     }
 
     @GetMapping("/{id}/availability")
@@ -168,6 +224,40 @@ public class RoomController {
         return ResponseEntity.ok(unavailableDates);
     }
 
+    @GetMapping("/{id}/availability/ranges")
+    @Operation(summary = "Get room availability as date ranges",
+            description = "Fetches merged [from, to) ranges of unavailable dates for a specific room, optionally limited to a date window")
+    @ApiResponse(responseCode = "200", description = "List of date ranges unavailable for the room reservation")
+    @ApiResponse(responseCode = "404", description = "Room not found")
+    public ResponseEntity<List<DateRangeDTO>> getRoomAvailabilityRanges(
+            @PathVariable @Parameter(description = "Room ID") Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "Start of the window, inclusive", example = "2024-12-01") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "End of the window, exclusive", example = "2025-01-01") LocalDate to) {
+        log.info("Fetching room availability ranges with ID: {} between {} and {}", id, from, to);
+        List<DateRangeDTO> unavailableRanges = reservationService.getUnavailableRangesForRoom(id, from, to);
+        log.info("Found {} unavailable date ranges", unavailableRanges.size());
+        return ResponseEntity.ok(unavailableRanges);
+    }
+
+    @GetMapping(value = "/availability-calendar", produces = NDJSON)
+    @Operation(summary = "Get occupancy calendar of rooms",
+            description = "Streams one line of JSON per room matching the criteria with a bitset of booked nights in the date window")
+    @ApiResponse(responseCode = "200", description = "Occupancy of every matching room")
+    @ApiResponse(responseCode = "400", description = "Invalid date window")
+    public ResponseEntity<StreamingResponseBody> getAvailabilityCalendar(
+            @ModelAttribute @Parameter(description = "Search criteria for rooms") RoomSearchCriteria criteria,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "First night of the window", example = "2024-12-01") LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            @Parameter(description = "Day after the last night of the window", example = "2025-01-01") LocalDate to) {
+        log.info("Fetching occupancy calendar between {} and {} with criteria: {}", from, to, criteria);
+        roomService.validateCalendarWindow(from, to);
+        StreamingResponseBody body = out -> roomService.writeOccupancyCalendar(criteria, from, to, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
     @PostMapping("/private/{roomId}/amenities/{amenityId}")
     @Operation(
             summary = "Assign an amenity to a room",
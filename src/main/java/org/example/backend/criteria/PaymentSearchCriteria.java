@@ -0,0 +1,21 @@
+package org.example.backend.criteria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class PaymentSearchCriteria {
+    @Schema(description = "The status of the payments to list", example = "COMPLETED")
+    private String status;
+
+    @Schema(description = "Earliest payment date, inclusive", example = "2024-12-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @Schema(description = "Latest payment date, inclusive", example = "2024-12-31")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+}
@@ -0,0 +1,27 @@
+package org.example.backend.criteria;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+public class ReservationSearchCriteria {
+    @Schema(description = "The status of the reservations to list", example = "CONFIRMED")
+    private String status;
+
+    @Schema(description = "Start of the date window, inclusive; stays checking out after it are listed", example = "2024-12-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @Schema(description = "End of the date window, exclusive; stays checking in before it are listed", example = "2025-01-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    @Schema(description = "The ID of the reserved room", example = "1")
+    private Long roomId;
+
+    @Schema(description = "The ID of the client who made the reservation", example = "1")
+    private Long clientId;
+}
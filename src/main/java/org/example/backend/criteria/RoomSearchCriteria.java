@@ -27,6 +27,10 @@ public class RoomSearchCriteria {
     @Schema(description = "Check-out date for room availability", example = "2024-12-07")
     private LocalDate checkOutDate;
 
+    @Schema(description = "Continuation token for keyset pagination; pass an empty value for the first page "
+            + "and the X-Next-Cursor response header for the following ones", example = "")
+    private String cursor;
+
     private final Optional<String> sortDirection; // sd = Sort Direction
     private final Optional<Integer> page; // p = page
 }
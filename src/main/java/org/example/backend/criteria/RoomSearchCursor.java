@@ -0,0 +1,31 @@
+package org.example.backend.criteria;
+
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last room of a keyset page in the (price, id) search order.
+ * Clients receive it as an opaque token and pass it back to get the next page.
+ */
+public record RoomSearchCursor(Double price, Long id) {
+
+    private static final String SEPARATOR = ":";
+
+    public String encode() {
+        String position = price + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RoomSearchCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.indexOf(SEPARATOR);
+            return new RoomSearchCursor(Double.valueOf(position.substring(0, separator)),
+                    Long.valueOf(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestParameterException("Invalid search cursor: " + token);
+        }
+    }
+}
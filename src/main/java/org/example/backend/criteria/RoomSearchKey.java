@@ -0,0 +1,55 @@
+package org.example.backend.criteria;
+
+import org.example.backend.enums.RoomType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+/**
+ * Cache key of a room search. Only the filters the search query applies are kept, so requests that
+ * differ in ignored parameters share an entry.
+ */
+public record RoomSearchKey(RoomType type, Double minPrice, Double maxPrice, LocalDate checkInDate,
+                            LocalDate checkOutDate, Sort.Direction sortDirection, String cursor,
+                            long offset, int pageSize) {
+
+    public static RoomSearchKey of(RoomSearchCriteria criteria, Pageable pageable) {
+        // The date filter is only applied when both dates are given
+        boolean dated = criteria.getCheckInDate() != null && criteria.getCheckOutDate() != null;
+        boolean keyset = criteria.getCursor() != null;
+        Sort.Direction sortDirection = criteria.getSortDirection()
+                .map(String::toUpperCase)
+                .map(Sort.Direction::valueOf)
+                .orElse(Sort.Direction.ASC);
+
+        return new RoomSearchKey(
+                criteria.getType(),
+                criteria.getMinPrice(),
+                criteria.getMaxPrice(),
+                dated ? criteria.getCheckInDate() : null,
+                dated ? criteria.getCheckOutDate() : null,
+                sortDirection,
+                keyset ? criteria.getCursor().strip() : null,
+                keyset ? 0 : pageable.getOffset(),
+                pageable.getPageSize());
+    }
+
+    /**
+     * Checks whether a room of the given type and price passes the type and price filters.
+     */
+    public boolean matchesRoom(RoomType roomType, Double price) {
+        return (type == null || type == roomType)
+                && (minPrice == null || price >= minPrice)
+                && (maxPrice == null || price <= maxPrice);
+    }
+
+    /**
+     * Checks whether a stay falls into the searched dates, with the same inclusive bounds as the search query.
+     */
+    public boolean overlaps(LocalDate stayCheckIn, LocalDate stayCheckOut) {
+        return checkInDate != null
+                && !stayCheckIn.isAfter(checkOutDate)
+                && !stayCheckOut.isBefore(checkInDate);
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.backend.criteria;
+
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+public class SortableProperties {
+
+    private SortableProperties() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Checks that the page is only sorted by the given properties, before the query runs. Spring Data
+     * sorts by any property path of the entity, so without this a sort parameter could order rows by,
+     * and so reveal, columns such as passwords or card numbers.
+     * @param pageable the requested page
+     * @param sortable the properties the page may be sorted by
+     */
+    public static void check(Pageable pageable, Set<String> sortable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!sortable.contains(order.getProperty())) {
+                throw new InvalidRequestParameterException("The results can only be sorted by "
+                        + String.join(", ", new TreeSet<>(sortable)) + ".");
+            }
+        }
+    }
+}
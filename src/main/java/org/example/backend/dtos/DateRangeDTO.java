@@ -0,0 +1,20 @@
+package org.example.backend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DateRangeDTO {
+
+    @Schema(description = "The first date of the range", example = "2024-12-01")
+    private LocalDate from;
+
+    @Schema(description = "The date after the last date of the range (exclusive)", example = "2024-12-07")
+    private LocalDate to;
+}
@@ -10,6 +10,9 @@ import org.example.backend.enums.RoomType;
 @NoArgsConstructor
 public class MultipleRoomsDTO {
 
+    // Taken room numbers are looked up with one IN list, which must stay far below the bind parameter limit
+    public static final int MAX_ROOMS = 1000;
+
     @Schema(description = "The room number", example = "101")
     @NotBlank(message = "Room number cannot be blank")
     @Pattern(regexp = "\\d{1,4}", message = "Room number must be between 1 to 4 digits")
@@ -18,6 +21,7 @@ public class MultipleRoomsDTO {
     @Schema(description = "The total number of rooms to create", example = "2")
     @NotNull(message = "Number of rooms cannot be null")
     @Min(value = 1, message = "There must be at least one room")
+    @Max(value = MAX_ROOMS, message = "At most " + MAX_ROOMS + " rooms can be created at once")
     private int numberOfRooms;
 
     @Schema(description = "The price per night for the room", example = "150.00")
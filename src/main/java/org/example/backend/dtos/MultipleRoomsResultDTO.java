@@ -0,0 +1,20 @@
+package org.example.backend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultipleRoomsResultDTO {
+
+    @Schema(description = "The rooms that were created")
+    private List<RoomDTO> created;
+
+    @Schema(description = "The room numbers that were skipped because they already exist", example = "[\"101\", \"102\"]")
+    private List<String> skipped;
+}
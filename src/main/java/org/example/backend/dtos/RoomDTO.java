@@ -8,6 +8,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.example.backend.enums.RoomType;
 
+import java.math.BigDecimal;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -22,12 +24,18 @@ public class RoomDTO {
     @Pattern(regexp = "\\d{1,4}", message = "Room number must be between 1 to 4 digits")
     private String roomNumber;
 
-    @Schema(description = "The price per night for the room", example = "150.00")
+    @Schema(description = "The price per night for the room including its amenities. "
+            + "Taken as the base price when creating or updating a room without a base price", example = "150.00")
     @NotNull(message = "Price cannot be null")
     @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
     @Digits(integer = 6, fraction = 2, message = "Price must be a valid monetary value with up to 2 decimal places")
     private Double price;
 
+    @Schema(description = "The price per night for the room without its amenities", example = "130.00")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Base price must be greater than 0")
+    @Digits(integer = 6, fraction = 2, message = "Base price must be a valid monetary value with up to 2 decimal places")
+    private BigDecimal basePrice;
+
     @Schema(description = "Indicates whether the room is available", example = "true")
     private boolean available;
 
@@ -0,0 +1,18 @@
+package org.example.backend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomDeletionResultDTO {
+
+    @Schema(description = "The number of rooms deleted", example = "120")
+    private long deleted;
+
+    @Schema(description = "The number of rooms kept because they have reservations", example = "3")
+    private long skipped;
+}
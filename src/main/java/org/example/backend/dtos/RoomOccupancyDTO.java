@@ -0,0 +1,22 @@
+package org.example.backend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomOccupancyDTO {
+
+    @Schema(description = "The unique identifier of the room", example = "1")
+    private Long roomId;
+
+    @Schema(description = "The room number", example = "101")
+    private String roomNumber;
+
+    @Schema(description = "Base64 encoded bitset of the window, one bit per night starting with the least "
+            + "significant bit of the first byte; a set bit means the night is booked", example = "HA==")
+    private String occupancy;
+}
@@ -0,0 +1,20 @@
+package org.example.backend.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomWithAmenitiesDTO {
+
+    @Schema(description = "The room")
+    private RoomDTO room;
+
+    @Schema(description = "The amenities assigned to the room, ordered by name")
+    private List<AmenityDTO> amenities;
+}
@@ -0,0 +1,18 @@
+package org.example.backend.enums;
+
+import org.springframework.http.MediaType;
+
+public enum StreamFormat {
+    NDJSON("application/x-ndjson"),
+    JSON(MediaType.APPLICATION_JSON_VALUE);
+
+    private final String mediaType;
+
+    StreamFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return MediaType.parseMediaType(mediaType);
+    }
+}
@@ -3,8 +3,12 @@ package org.example.backend.exception;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.example.backend.exception.exceptions.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -67,6 +71,19 @@ public class MyErrorHandler {
         return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    public ResponseEntity<Object> handleInvalidRequestParameter(InvalidRequestParameterException ex) {
+        logException(ex);
+        return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    // Thrown for a sort parameter naming an unknown property, its message describes the entity
+    @ExceptionHandler(PropertyReferenceException.class)
+    public ResponseEntity<Object> handlePropertyReference(PropertyReferenceException ex) {
+        logException(ex);
+        return new ResponseEntity<>(new ErrorResponse("The sort parameter names an unknown property."), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(AuthenticationException.class)
     public ResponseEntity<ErrorResponse> handleApplicationException(AuthenticationException e) {
         return new ResponseEntity<>(
@@ -112,6 +129,22 @@ public class MyErrorHandler {
                 .body("Client cannot be deleted: " + ex.getMessage());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        logException(ex);
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("The record was changed by another request, please try again.");
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<String> handleConnectionPoolExhausted(Exception ex) {
+        // No stack trace: when the pool is saturated every waiting request ends up here
+        log.warn("No database connection available: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body("The service is busy, please try again.");
+    }
+
     @ExceptionHandler(AmenityAlreadyAssignedException.class)
     public ResponseEntity<String> handleAmenityAlreadyAssigned(AmenityAlreadyAssignedException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
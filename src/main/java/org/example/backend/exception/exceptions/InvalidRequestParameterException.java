@@ -0,0 +1,7 @@
+package org.example.backend.exception.exceptions;
+
+public class InvalidRequestParameterException extends RuntimeException {
+    public InvalidRequestParameterException(String message) {
+        super(message);
+    }
+}
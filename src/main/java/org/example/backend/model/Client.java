@@ -2,6 +2,7 @@ package org.example.backend.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.Collection;
 
@@ -27,6 +28,7 @@ public class Client {
     private String password;
 
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "users_roles",
             joinColumns = @JoinColumn(
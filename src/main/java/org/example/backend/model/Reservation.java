@@ -34,4 +34,7 @@ public class Reservation {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false)
     private Room roomId;
+
+    @Version
+    private Long version;
 }
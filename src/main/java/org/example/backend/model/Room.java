@@ -3,19 +3,29 @@ package org.example.backend.model;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.example.backend.enums.RoomType;
+import org.hibernate.annotations.BatchSize;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
 @Data
 public class Room {
+    // A pooled sequence instead of IDENTITY, so Hibernate can batch inserts of new rooms
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+    @SequenceGenerator(name = "room_seq", sequenceName = "room_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "room_number", nullable = false, unique = true)
     private String roomNumber;
 
-    @Column(nullable = false)
+    @Column(name = "base_price", nullable = false, precision = 10, scale = 2)
+    private BigDecimal basePrice;
+
+    // Base price plus the cost of the room's amenities. Not stored, and only set where the room is priced:
+    // by room search, or from RoomPricingService, so loading a room does not add up its amenities
+    @Transient
     private Double price;
 
     @Column(nullable = false)
@@ -27,11 +37,16 @@ public class Room {
 
     private String description;
 
+    // Initializing the amenities of one room loads those of up to 50 other rooms in the session too
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "room_amenities",
             joinColumns = @JoinColumn(name = "room_id"),
             inverseJoinColumns = @JoinColumn(name = "amenity_id")
     )
     private List<Amenity> amenities;
+
+    @Version
+    private Long version;
 }
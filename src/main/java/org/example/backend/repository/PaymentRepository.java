@@ -1,10 +1,46 @@
 package org.example.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dtos.PaymentDTO;
 import org.example.backend.model.Payment;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
+    String PAYMENT_DTO_QUERY = "select new org.example.backend.dtos.PaymentDTO(p.id, p.cardNumber, p.paymentDate, "
+            + "p.amount, p.status, p.clientId.id, p.reservationId.id) "
+            + "from Payment p order by p.id";
+
     Payment findById(long id);
+
+    /**
+     * Loads the payment together with its reservation in one query.
+     */
+    @EntityGraph(attributePaths = "reservationId")
+    Optional<Payment> findWithReservationById(Long id);
+
+    /**
+     * Reads every payment straight into a DTO. The client and reservation ids come from the foreign key
+     * columns, so neither table is joined.
+     */
+    @Query(PAYMENT_DTO_QUERY)
+    List<PaymentDTO> findAllPaymentDTOs();
+
+    /**
+     * Same as {@link #findAllPaymentDTOs()}, but rows are fetched from the database in chunks while the
+     * stream is consumed. Must be used inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(PAYMENT_DTO_QUERY)
+    Stream<PaymentDTO> streamAllPaymentDTOs();
 }
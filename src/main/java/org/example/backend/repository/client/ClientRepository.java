@@ -1,12 +1,44 @@
 package org.example.backend.repository.client;
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dtos.ClientDTO;
 import org.example.backend.model.Client;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
+    String CLIENT_DTO_QUERY = "select new org.example.backend.dtos.ClientDTO(c.id, c.firstName, c.lastName, "
+            + "c.email, c.phone) from Client c order by c.id";
+
     boolean existsByEmail(String email);
+    boolean existsByEmailAndIdNot(String email, Long id);
     Client findByEmail(String email);
 
+    /**
+     * Loads the client together with the roles that go into its token.
+     */
+    @EntityGraph(attributePaths = "roles")
+    Client findWithRolesByEmail(String email);
+
+    /**
+     * Reads every client straight into a DTO, leaving out the password and roles.
+     */
+    @Query(CLIENT_DTO_QUERY)
+    List<ClientDTO> findAllClientDTOs();
+
+    /**
+     * Same as {@link #findAllClientDTOs()}, but rows are fetched from the database in chunks while the
+     * stream is consumed. Must be used inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(CLIENT_DTO_QUERY)
+    Stream<ClientDTO> streamAllClientDTOs();
 }
@@ -1,14 +1,83 @@
 package org.example.backend.repository.reservation;
 
+import jakarta.persistence.QueryHint;
+import org.example.backend.dtos.ReservationDTO;
 import org.example.backend.model.Client;
 import org.example.backend.model.Reservation;
-import org.example.backend.model.Room;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
+    String RESERVATION_DTO_QUERY = "select new org.example.backend.dtos.ReservationDTO(r.id, r.checkInDate, "
+            + "r.checkOutDate, r.numberOfGuests, r.totalPrice, r.status, r.clientId.id, r.roomId.id) "
+            + "from Reservation r order by r.id";
+
+    /**
+     * Loads the reservation together with its room, which every change of a reservation reads.
+     */
+    @EntityGraph(attributePaths = "roomId")
+    Optional<Reservation> findWithRoomById(Long id);
 
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     List<Reservation> findByClientId(Client client);
 
-    List<Reservation> findByRoomId(Room room);
+    boolean existsByRoomId_Id(Long roomId);
+
+    boolean existsByClientId_Id(Long clientId);
+
+    @Query("select r.id as id, r.roomId.id as roomId, r.checkInDate as checkInDate, r.checkOutDate as checkOutDate "
+            + "from Reservation r")
+    List<ReservationStay> findAllStays();
+
+    /**
+     * Lists the stays of the room overlapping the window in check-in order, served by the
+     * (room_id, check_in_date, check_out_date) index. A null bound leaves that side of the window open.
+     */
+    @Query("select r.id as id, r.roomId.id as roomId, r.checkInDate as checkInDate, r.checkOutDate as checkOutDate "
+            + "from Reservation r "
+            + "where r.roomId.id = :roomId "
+            + "and r.checkOutDate > coalesce(:windowStart, r.checkInDate) "
+            + "and r.checkInDate < coalesce(:windowEnd, r.checkOutDate) "
+            + "order by r.checkInDate, r.id")
+    List<ReservationStay> findStaysOfRoom(@Param("roomId") Long roomId,
+                                         @Param("windowStart") LocalDate windowStart,
+                                         @Param("windowEnd") LocalDate windowEnd);
+
+    /**
+     * Reads every reservation straight into a DTO. The client and room ids come from the foreign key
+     * columns, so neither table is joined.
+     */
+    @Query(RESERVATION_DTO_QUERY)
+    List<ReservationDTO> findAllReservationDTOs();
+
+    /**
+     * Same as {@link #findAllReservationDTOs()}, but rows are fetched from the database in chunks while the
+     * stream is consumed. Must be used inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(RESERVATION_DTO_QUERY)
+    Stream<ReservationDTO> streamAllReservationDTOs();
+
+    /**
+     * Checks for a reservation of the room overlapping the given stay, served by the
+     * (room_id, check_in_date, check_out_date) index.
+     * The reservation with the given id is left out, pass null when creating a new reservation.
+     */
+    @Query("select case when count(r) > 0 then true else false end from Reservation r "
+            + "where r.roomId.id = :roomId "
+            + "and r.checkInDate < :checkOutDate and r.checkOutDate > :checkInDate "
+            + "and r.id <> coalesce(:reservationId, 0L)")
+    boolean existsOverlapping(@Param("roomId") Long roomId,
+                              @Param("checkInDate") LocalDate checkInDate,
+                              @Param("checkOutDate") LocalDate checkOutDate,
+                              @Param("reservationId") Long reservationId);
 }
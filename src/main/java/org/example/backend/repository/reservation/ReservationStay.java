@@ -0,0 +1,16 @@
+package org.example.backend.repository.reservation;
+
+import java.time.LocalDate;
+
+/**
+ * Lightweight projection of a reservation holding only the room and the booked nights.
+ */
+public interface ReservationStay {
+    Long getId();
+
+    Long getRoomId();
+
+    LocalDate getCheckInDate();
+
+    LocalDate getCheckOutDate();
+}
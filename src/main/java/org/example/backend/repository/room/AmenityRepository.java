@@ -2,9 +2,30 @@ package org.example.backend.repository.room;
 
 import org.example.backend.model.Amenity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface AmenityRepository extends JpaRepository<Amenity, Long> {
     boolean existsByName(String name);
+
+    /**
+     * Reads the amenities of all the given rooms in one query.
+     */
+    @Query("select new org.example.backend.repository.room.RoomAmenityRow(r.id, a.id, a.name, a.description, a.additionalCost) "
+            + "from Room r join r.amenities a where r.id in :roomIds order by a.name, a.id")
+    List<RoomAmenityRow> findAmenitiesOfRooms(@Param("roomIds") Collection<Long> roomIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from room_amenities where amenity_id = :amenityId", nativeQuery = true)
+    int deleteRoomAssignments(@Param("amenityId") Long amenityId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Amenity a where a.id = :id")
+    int deleteAmenityById(@Param("id") Long id);
 }
@@ -0,0 +1,7 @@
+package org.example.backend.repository.room;
+
+/**
+ * One row of the amenities-of-rooms query: a room id and one amenity assigned to that room.
+ */
+public record RoomAmenityRow(Long roomId, Long amenityId, String name, String description, double additionalCost) {
+}
@@ -1,30 +1,50 @@
 package org.example.backend.repository.room;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
 import org.example.backend.criteria.RoomSearchCriteria;
+import org.example.backend.criteria.RoomSearchCursor;
 import org.example.backend.model.Reservation;
 import org.example.backend.model.Room;
+import org.example.backend.specifications.RoomSpecifications;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class RoomCriteriaRepository {
     private final EntityManager entityManager;
 
-    public static final String PRICE = "price";
-
+    public static final String BASE_PRICE = "basePrice";
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Searches rooms by type, price and free dates. The price of a room is its base price plus the cost
+     * of its amenities, worked out in the query and set on each room found.
+     * <p>
+     * Amenities never cost less than zero, so a room can only cost at most the maximum price or the
+     * price of the cursor if its base price does too. These extra bounds on the base price let the
+     * (type, base_price) index narrow the rooms before the price of each one is worked out.
+     * The price is compared and ordered as an exact decimal, so the bounds and the cursor are bound
+     * as {@link BigDecimal} and a price on a bound is never lost to floating point rounding.
+     */
     public List<Room> getAllRooms(RoomSearchCriteria criteria, Pageable pageable) {
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Room> query = cb.createQuery(Room.class);
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
         Root<Room> root = query.from(Room.class);
+        Path<BigDecimal> basePrice = root.get(BASE_PRICE);
+        Expression<BigDecimal> price = RoomSpecifications.price(root, query, cb);
 
         List<Predicate> predicates = new ArrayList<>();
 
@@ -32,44 +52,125 @@ public class RoomCriteriaRepository {
             predicates.add(cb.equal(root.get("type"), criteria.getType()));
         }
         if (criteria.getMinPrice() != null) {
-            predicates.add(cb.greaterThanOrEqualTo(root.get(PRICE), criteria.getMinPrice()));
+            predicates.add(cb.greaterThanOrEqualTo(price, BigDecimal.valueOf(criteria.getMinPrice())));
         }
         if (criteria.getMaxPrice() != null) {
-            predicates.add(cb.lessThanOrEqualTo(root.get(PRICE), criteria.getMaxPrice()));
+            BigDecimal maxPrice = BigDecimal.valueOf(criteria.getMaxPrice());
+            predicates.add(cb.lessThanOrEqualTo(basePrice, maxPrice));
+            predicates.add(cb.lessThanOrEqualTo(price, maxPrice));
         }
         if (criteria.getCheckInDate() != null && criteria.getCheckOutDate() != null) {
-            Subquery<Long> subquery = query.subquery(Long.class);
+            // Correlated on the candidate room, so each probe is one lookup in the (room_id, dates) index
+            Subquery<Integer> subquery = query.subquery(Integer.class);
             Root<Reservation> reservationRoot = subquery.from(Reservation.class);
 
-            subquery.select(reservationRoot.get("roomId").get("id"));
+            subquery.select(cb.literal(1));
 
             Predicate overlappingReservations = cb.and(
+                    cb.equal(reservationRoot.get("roomId").get("id"), root.get("id")),
                     cb.lessThanOrEqualTo(reservationRoot.get("checkInDate"), criteria.getCheckOutDate()),
                     cb.greaterThanOrEqualTo(reservationRoot.get("checkOutDate"), criteria.getCheckInDate())
             );
 
             subquery.where(overlappingReservations);
 
-            predicates.add(cb.not(root.get("id").in(subquery)));
+            predicates.add(cb.not(cb.exists(subquery)));
         }
 
-        query.select(root).where(cb.and(predicates.toArray(new Predicate[0])));
-
         Sort.Direction sortDir = criteria.getSortDirection()
                 .map(String::toUpperCase)
                 .map(Sort.Direction::valueOf)
                 .orElse(Sort.Direction.ASC);
 
+        boolean keyset = criteria.getCursor() != null;
+        if (keyset && !criteria.getCursor().isBlank()) {
+            RoomSearchCursor cursor = RoomSearchCursor.decode(criteria.getCursor());
+            if (sortDir == Sort.Direction.DESC) {
+                predicates.add(cb.lessThanOrEqualTo(basePrice, BigDecimal.valueOf(cursor.price())));
+            }
+            predicates.add(after(cb, root, price, cursor, sortDir));
+        }
+
+        query.multiselect(root, price).where(cb.and(predicates.toArray(new Predicate[0])));
+
+        // id breaks ties between equal prices so pages never repeat or skip rooms
         if (sortDir == Sort.Direction.ASC) {
-            query.orderBy(cb.asc(root.get(PRICE)));
+            query.orderBy(cb.asc(price), cb.asc(root.get("id")));
         } else {
-            query.orderBy(cb.desc(root.get(PRICE)));
+            query.orderBy(cb.desc(price), cb.desc(root.get("id")));
         }
 
-        TypedQuery<Room> typedQuery = entityManager.createQuery(query);
-        typedQuery.setFirstResult((int) pageable.getOffset());
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (!keyset) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+        }
         typedQuery.setMaxResults(pageable.getPageSize());
 
-        return typedQuery.getResultList();
+        List<Room> rooms = new ArrayList<>();
+        for (Tuple row : typedQuery.getResultList()) {
+            Room room = row.get(0, Room.class);
+            room.setPrice(((Number) row.get(1)).doubleValue());
+            rooms.add(room);
+        }
+        return rooms;
+    }
+
+    /**
+     * Builds the keyset predicate selecting the rooms that come after the cursor in the (price, id) order.
+     */
+    private Predicate after(CriteriaBuilder cb, Root<Room> root, Expression<BigDecimal> price, RoomSearchCursor cursor,
+                            Sort.Direction sortDir) {
+        Path<Long> id = root.get("id");
+        BigDecimal cursorPrice = BigDecimal.valueOf(cursor.price());
+        if (sortDir == Sort.Direction.ASC) {
+            return cb.or(cb.greaterThan(price, cursorPrice),
+                    cb.and(cb.equal(price, cursorPrice), cb.greaterThan(id, cursor.id())));
+        }
+        return cb.or(cb.lessThan(price, cursorPrice),
+                cb.and(cb.equal(price, cursorPrice), cb.lessThan(id, cursor.id())));
+    }
+
+    /**
+     * Streams every room matching the criteria together with its reservations overlapping the window,
+     * ordered by room id, in one query. Rooms without reservations in the window appear once with null dates.
+     * The stream must be consumed inside a transaction and closed afterwards.
+     */
+    public Stream<RoomOccupancyRow> streamOccupancy(RoomSearchCriteria criteria, LocalDate from, LocalDate to) {
+        StringBuilder jpql = new StringBuilder("select new org.example.backend.repository.room.RoomOccupancyRow("
+                + "r.id, r.roomNumber, res.checkInDate, res.checkOutDate) "
+                + "from Room r left join Reservation res on res.roomId = r "
+                + "and res.checkInDate < :to and res.checkOutDate > :from");
+
+        List<String> conditions = new ArrayList<>();
+        if (criteria.getType() != null) {
+            conditions.add("r.type = :type");
+        }
+        if (criteria.getMinPrice() != null) {
+            conditions.add(RoomRepository.PRICE + " >= :minPrice");
+        }
+        if (criteria.getMaxPrice() != null) {
+            conditions.add("r.basePrice <= :maxBasePrice");
+            conditions.add(RoomRepository.PRICE + " <= :maxPrice");
+        }
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by r.id");
+
+        TypedQuery<RoomOccupancyRow> query = entityManager.createQuery(jpql.toString(), RoomOccupancyRow.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+        if (criteria.getType() != null) {
+            query.setParameter("type", criteria.getType());
+        }
+        if (criteria.getMinPrice() != null) {
+            query.setParameter("minPrice", criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            query.setParameter("maxBasePrice", BigDecimal.valueOf(criteria.getMaxPrice()));
+            query.setParameter("maxPrice", criteria.getMaxPrice());
+        }
+        return query.getResultStream();
     }
 }
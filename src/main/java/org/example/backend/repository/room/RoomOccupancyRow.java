@@ -0,0 +1,10 @@
+package org.example.backend.repository.room;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the occupancy calendar query: a room and one of its reservations in the window,
+ * or null dates when the room has no reservation there.
+ */
+public record RoomOccupancyRow(Long roomId, String roomNumber, LocalDate checkInDate, LocalDate checkOutDate) {
+}
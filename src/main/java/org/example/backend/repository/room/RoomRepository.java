@@ -1,11 +1,76 @@
 package org.example.backend.repository.room;
 
+import jakarta.persistence.LockModeType;
+import org.example.backend.dtos.RoomDTO;
 import org.example.backend.model.Room;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room> {
+    // Base price plus the cost of the room's amenities, for queries reading rooms straight into DTOs
+    String PRICE = "cast(r.basePrice + coalesce((select sum(a.additionalCost) from Room pr join pr.amenities a "
+            + "where pr.id = r.id), 0) as Double)";
+
     boolean existsByRoomNumber(String roomNumber);
+
+    boolean existsByRoomNumberAndIdNot(String roomNumber, Long id);
+
+    /**
+     * Reads every room straight into a DTO, so no managed entities or dirty-checking snapshots are created.
+     */
+    @Query("select new org.example.backend.dtos.RoomDTO(r.id, r.roomNumber, " + PRICE
+            + ", r.basePrice, r.available, r.type, r.description) "
+            + "from Room r order by r.id")
+    List<RoomDTO> findAllRoomDTOs();
+
+    /**
+     * Reads one slice of rooms straight into DTOs. A slice reads one row past the page instead of counting all rooms.
+     */
+    @Query("select new org.example.backend.dtos.RoomDTO(r.id, r.roomNumber, " + PRICE
+            + ", r.basePrice, r.available, r.type, r.description) "
+            + "from Room r")
+    Slice<RoomDTO> findRoomDTOSlice(Pageable pageable);
+
+    @Query("select r.roomNumber from Room r where r.roomNumber in :roomNumbers")
+    Set<String> findExistingRoomNumbers(@Param("roomNumbers") Collection<String> roomNumbers);
+
+    /**
+     * Loads the room for booking. The room version is incremented when the transaction commits,
+     * so two instances booking the same room at the same time cannot both succeed.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("select r from Room r where r.id = :id")
+    Optional<Room> findForBookingById(@Param("id") Long id);
+
+    /**
+     * Adds up the base price of the room and the cost of its amenities in the database, as an exact decimal.
+     */
+    @Query(value = "select r.base_price + coalesce(sum(a.additional_cost), 0) from room r "
+            + "left join room_amenities ra on ra.room_id = r.id left join amenity a on a.id = ra.amenity_id "
+            + "where r.id = :roomId group by r.id, r.base_price", nativeQuery = true)
+    Optional<BigDecimal> findNightlyPrice(@Param("roomId") Long roomId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from room_amenities ra where not exists "
+            + "(select 1 from reservation res where res.room_id = ra.room_id)", nativeQuery = true)
+    int deleteAmenityLinksOfUnreservedRooms();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from room r where not exists "
+            + "(select 1 from reservation res where res.room_id = r.id)", nativeQuery = true)
+    int deleteUnreservedRooms();
 }
@@ -0,0 +1,45 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.enums.StreamFormat;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Serializes a stream of DTOs one element at a time, so only the element being written is held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonStreamWriter {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes the elements either as newline delimited JSON or as a single JSON array.
+     * @param elements the elements to write, consumed but not closed
+     * @param format the output format
+     * @param out the stream to write to
+     * @return the number of elements written
+     */
+    public long write(Stream<?> elements, StreamFormat format, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer();
+        long count = 0;
+        try (SequenceWriter sequence = format == StreamFormat.NDJSON
+                ? writer.withRootValueSeparator("\n").writeValues(out)
+                : writer.writeValuesAsArray(out)) {
+            Iterator<?> iterator = elements.iterator();
+            while (iterator.hasNext()) {
+                sequence.write(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+}
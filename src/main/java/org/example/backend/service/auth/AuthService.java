@@ -33,7 +33,7 @@ public class AuthService {
     private static final long TOKEN_VALIDITY = (long) 1000 * 60 * 60 * 24 * 10;
 
     public LoginResponseDTO login(LoginRequestDTO loginRequestDTO) {
-        Client client = clientRepository.findByEmail(loginRequestDTO.getEmail());
+        Client client = clientRepository.findWithRolesByEmail(loginRequestDTO.getEmail());
 
         if (client != null && passwordEncoder.matches(loginRequestDTO.getPassword(), client.getPassword())) {
             Map<String, Object> claims = new HashMap<>();
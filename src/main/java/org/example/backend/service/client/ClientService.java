@@ -2,18 +2,27 @@ package org.example.backend.service.client;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.backend.criteria.SortableProperties;
 import org.example.backend.dtos.ClientDTO;
+import org.example.backend.enums.StreamFormat;
 import org.example.backend.exception.exceptions.ClientEmailAlreadyExistsException;
 import org.example.backend.exception.exceptions.NoSuchClientException;
 import org.example.backend.exception.exceptions.RoomDeletionException;
 import org.example.backend.mappers.ClientMapper;
 import org.example.backend.model.Client;
-import org.example.backend.model.Reservation;
 import org.example.backend.repository.client.ClientRepository;
 import org.example.backend.repository.reservation.ReservationRepository;
+import org.example.backend.service.JsonStreamWriter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -23,6 +32,8 @@ public class ClientService {
     private final ClientRepository clientRepository;
     private final ClientMapper clientMapper;
     private final ReservationRepository reservationRepository;
+    private final JsonStreamWriter jsonStreamWriter;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "firstName", "lastName", "email");
 
     public ClientDTO createClient(ClientDTO clientDTO) {
         log.info("Creating a new client with email: {}", clientDTO.getEmail());
@@ -47,12 +58,12 @@ public class ClientService {
 
     private void validateClientEmail(String email, Long clientId) {
 
-        if (clientRepository.existsByEmail(email)
-                && (clientId == null || !clientRepository.findById(clientId)
-                .orElseThrow(() -> new ClientEmailAlreadyExistsException("Invalid client ID"))
-                .getEmail().equals(email))) {
-                throw new ClientEmailAlreadyExistsException("Account with email " + email + " already exists.");
-            }
+        boolean taken = clientId == null
+                ? clientRepository.existsByEmail(email)
+                : clientRepository.existsByEmailAndIdNot(email, clientId);
+        if (taken) {
+            throw new ClientEmailAlreadyExistsException("Account with email " + email + " already exists.");
+        }
 
     }
 
@@ -65,8 +76,31 @@ public class ClientService {
         return clientRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<ClientDTO> getAllClientsDTO() {
-        return clientMapper.toClientDTOList(getAllClientsEntity());
+        return clientRepository.findAllClientDTOs();
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ClientDTO> getClientsPage(Pageable pageable) {
+        log.info("Fetching clients with pagination: {}", pageable);
+        SortableProperties.check(pageable, SORTABLE_PROPERTIES);
+        return clientRepository.findAll(pageable).map(clientMapper::toClientDto);
+    }
+
+    /**
+     * Writes every client to the stream as it is read from the database, so memory use does not
+     * depend on the number of clients.
+     * @param format newline delimited JSON or a JSON array
+     * @param out the stream to write to
+     */
+    @Transactional(readOnly = true)
+    public void writeAllClients(StreamFormat format, OutputStream out) throws IOException {
+        log.info("Streaming all clients as {}.", format);
+        try (Stream<ClientDTO> clients = clientRepository.streamAllClientDTOs()) {
+            long count = jsonStreamWriter.write(clients, format, out);
+            log.info("Streamed {} clients.", count);
+        }
     }
 
     public ClientDTO updateClient(Long id, ClientDTO clientDTO) {
@@ -98,8 +132,7 @@ public class ClientService {
     }
 
     private boolean hasReservations(Client client) {
-        log.info("Checking for active reservations for room ID: {}", client.getId());
-        List<Reservation> reservations = reservationRepository.findByClientId(client);
-        return !reservations.isEmpty();
+        log.info("Checking for active reservations for client ID: {}", client.getId());
+        return reservationRepository.existsByClientId_Id(client.getId());
     }
 }
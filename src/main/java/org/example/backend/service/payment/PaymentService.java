@@ -2,9 +2,12 @@ package org.example.backend.service.payment;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.backend.criteria.PaymentSearchCriteria;
+import org.example.backend.criteria.SortableProperties;
 import org.example.backend.dtos.PaymentDTO;
+import org.example.backend.enums.StreamFormat;
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
 import org.example.backend.exception.exceptions.NoSuchPaymentException;
-import org.example.backend.exception.exceptions.NoSuchReservationException;
 import org.example.backend.mappers.PaymentMapper;
 import org.example.backend.model.Client;
 import org.example.backend.model.Payment;
@@ -12,9 +15,19 @@ import org.example.backend.model.Reservation;
 import org.example.backend.repository.client.ClientRepository;
 import org.example.backend.repository.reservation.ReservationRepository;
 import org.example.backend.repository.PaymentRepository;
+import org.example.backend.service.JsonStreamWriter;
+import org.example.backend.specifications.PaymentSpecifications;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -25,7 +38,9 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final ClientRepository clientRepository;
     private final ReservationRepository reservationRepository;
+    private final JsonStreamWriter jsonStreamWriter;
     private static final String ERROR_MESSAGE = "Payment not found!";
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "paymentDate", "status", "amount");
 
     public PaymentDTO createPayment(PaymentDTO paymentDTO) {
         Payment payment = paymentMapper.toPayment(paymentDTO);
@@ -40,11 +55,47 @@ public class PaymentService {
         return paymentMapper.toPaymentDTO(savedPayment);
     }
 
+    @Transactional(readOnly = true)
     public List<PaymentDTO> getAllPayments() {
         log.info("Fetching all payments.");
-        List<Payment> payments = paymentRepository.findAll();
+        List<PaymentDTO> payments = paymentRepository.findAllPaymentDTOs();
         log.info("Found {} payment records.", payments.size());
-        return paymentMapper.toPaymentDTOList(payments);
+        return payments;
+    }
+
+    /**
+     * Lists one page of the payments matching the criteria, filters left empty are ignored.
+     * @param criteria filters on status and payment date
+     * @param pageable page number, size and sort order
+     * @return the requested page with the total number of matching payments
+     */
+    @Transactional(readOnly = true)
+    public Page<PaymentDTO> searchPayments(PaymentSearchCriteria criteria, Pageable pageable) {
+        log.info("Searching payments with criteria: {} and pagination: {}", criteria, pageable);
+        if (criteria.getFrom() != null && criteria.getTo() != null && criteria.getFrom().isAfter(criteria.getTo())) {
+            throw new InvalidRequestParameterException("The earliest payment date must not be after the latest one.");
+        }
+        Specification<Payment> specification = Specification
+                .where(PaymentSpecifications.hasStatus(criteria.getStatus()))
+                .and(PaymentSpecifications.paidOnOrAfter(criteria.getFrom()))
+                .and(PaymentSpecifications.paidOnOrBefore(criteria.getTo()));
+        SortableProperties.check(pageable, SORTABLE_PROPERTIES);
+        return paymentRepository.findAll(specification, pageable).map(paymentMapper::toPaymentDTO);
+    }
+
+    /**
+     * Writes every payment to the stream as it is read from the database, so memory use does not
+     * depend on the number of payments.
+     * @param format newline delimited JSON or a JSON array
+     * @param out the stream to write to
+     */
+    @Transactional(readOnly = true)
+    public void writeAllPayments(StreamFormat format, OutputStream out) throws IOException {
+        log.info("Streaming all payments as {}.", format);
+        try (Stream<PaymentDTO> payments = paymentRepository.streamAllPaymentDTOs()) {
+            long count = jsonStreamWriter.write(payments, format, out);
+            log.info("Streamed {} payments.", count);
+        }
     }
 
     public PaymentDTO updatePayment(Long id, PaymentDTO paymentDTO) {
@@ -78,15 +129,13 @@ public class PaymentService {
         return paymentMapper.toPaymentDTO(payment);
     }
 
+    @Transactional
     public void deletePayment(Long id) {
         log.info("Deleting payment with ID: {}", id);
-        Payment payment = paymentRepository.findById(id)
+        Payment payment = paymentRepository.findWithReservationById(id)
                 .orElseThrow(() -> new NoSuchPaymentException(ERROR_MESSAGE));
 
-        Reservation reservation = reservationRepository.findById(payment.getReservationId().getId())
-                .orElseThrow(() -> new NoSuchReservationException("Reservation not found!"));
-
-        reservation.setStatus("UNCONFIRMED");
+        payment.getReservationId().setStatus("UNCONFIRMED");
         paymentRepository.delete(payment);
         log.info("Payment with ID: {} deleted successfully.", id);
     }
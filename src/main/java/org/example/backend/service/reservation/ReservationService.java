@@ -2,8 +2,13 @@ package org.example.backend.service.reservation;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.backend.configs.CacheConfiguration;
+import org.example.backend.criteria.ReservationSearchCriteria;
+import org.example.backend.criteria.SortableProperties;
+import org.example.backend.dtos.DateRangeDTO;
 import org.example.backend.dtos.ReservationDTO;
 import org.example.backend.enums.RoomType;
+import org.example.backend.enums.StreamFormat;
 import org.example.backend.exception.exceptions.*;
 import org.example.backend.mappers.ReservationMapper;
 import org.example.backend.model.Client;
@@ -11,14 +16,30 @@ import org.example.backend.model.Reservation;
 import org.example.backend.model.Room;
 import org.example.backend.repository.client.ClientRepository;
 import org.example.backend.repository.reservation.ReservationRepository;
+import org.example.backend.repository.reservation.ReservationStay;
 import org.example.backend.repository.room.RoomRepository;
-import org.example.backend.service.room.RoomService;
+import org.example.backend.service.JsonStreamWriter;
+import org.example.backend.service.room.RoomPricingService;
+import org.example.backend.service.room.RoomSearchCacheInvalidator;
+import org.example.backend.specifications.ReservationSpecifications;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -29,31 +50,61 @@ public class ReservationService {
     private final ReservationMapper reservationMapper;
     private final RoomRepository roomRepository;
     private final ClientRepository clientRepository;
-    private final RoomService roomService;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomBookingLocks bookingLocks;
+    private final RoomSearchCacheInvalidator searchCacheInvalidator;
+    private final JsonStreamWriter jsonStreamWriter;
+    private final RoomPricingService roomPricingService;
+    private final TransactionOperations transactionOperations;
     public static final String ROOM_NOT_FOUND_MESSAGE = "Room not found!";
+    private static final String NO_OVERLAP_CONSTRAINT = "ex_reservation_room_stay";
+    private static final Set<String> SORTABLE_PROPERTIES =
+            Set.of("id", "checkInDate", "checkOutDate", "numberOfGuests", "totalPrice", "status");
 
+    /**
+     * Books a room. The room lock is taken before the transaction starts and released once it has
+     * committed, so bookings waiting for a busy room do not each hold a database connection.
+     * Booking marks the room unavailable.
+     * @param reservationDTO the stay to book
+     * @return the saved reservation
+     */
+    @CacheEvict(cacheNames = CacheConfiguration.ROOMS, key = "#p0.roomId")
     public ReservationDTO createReservation(ReservationDTO reservationDTO) {
         log.info("Creating reservation for client with ID: {} for room with ID: {}", reservationDTO.getClientId(), reservationDTO.getRoomId());
+        Long roomId = requireRoomId(reservationDTO);
+        return bookingLocks.withRoomLock(roomId,
+                () -> transactionOperations.execute(status -> bookRoom(reservationDTO)));
+    }
 
+    private ReservationDTO bookRoom(ReservationDTO reservationDTO) {
         Client client = getClientById(reservationDTO.getClientId());
 
-        Room room = getRoomById(reservationDTO.getRoomId());
+        Room room = getRoomForBooking(reservationDTO.getRoomId());
+
+        validateReservationDates(reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate());
 
         validateRoomAvailability(room.getId(), reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate());
 
         validateNumberOfGuests(room, reservationDTO.getNumberOfGuests());
 
-        validateReservationDates(reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate());
-
         Reservation reservation = reservationMapper.toReservation(reservationDTO);
+        reservation.setId(null);
         reservation.setClientId(client);
         reservation.setRoomId(room);
         reservation.setTotalPrice(calculateTotalPrice(reservation));
         reservation.setStatus("UNCONFIRMED");
 
+        boolean wasAvailable = room.isAvailable();
         room.setAvailable(false);
 
-        Reservation savedReservation = reservationRepository.save(reservation);
+        Reservation savedReservation = saveReservation(reservation);
+        availabilityIndex.put(savedReservation);
+        Double price = nightlyPrice(room);
+        if (wasAvailable) {
+            searchCacheInvalidator.roomChanged(room.getType(), price);
+        }
+        searchCacheInvalidator.stayChanged(room.getType(), price,
+                savedReservation.getCheckInDate(), savedReservation.getCheckOutDate());
         log.info("Reservation created successfully with ID: {}", savedReservation.getId());
         return reservationMapper.toReservationDto(savedReservation);
     }
@@ -67,6 +118,38 @@ public class ReservationService {
         return reservationMapper.toReservationDTOList(reservations);
     }
 
+    @Transactional(readOnly = true)
+    public Page<ReservationDTO> getReservationsByClientId(Long clientId, Pageable pageable) {
+        log.info("Fetching reservations for client with ID: {} and pagination: {}", clientId, pageable);
+        getClientById(clientId);
+        ReservationSearchCriteria criteria = new ReservationSearchCriteria();
+        criteria.setClientId(clientId);
+        return searchReservations(criteria, pageable);
+    }
+
+    /**
+     * Lists one page of the reservations matching the criteria, filters left empty are ignored.
+     * A date window selects the stays overlapping it, the same way availability is checked.
+     * @param criteria filters on status, date window, room and client
+     * @param pageable page number, size and sort order
+     * @return the requested page with the total number of matching reservations
+     */
+    @Transactional(readOnly = true)
+    public Page<ReservationDTO> searchReservations(ReservationSearchCriteria criteria, Pageable pageable) {
+        log.info("Searching reservations with criteria: {} and pagination: {}", criteria, pageable);
+        if (criteria.getFrom() != null && criteria.getTo() != null && !criteria.getFrom().isBefore(criteria.getTo())) {
+            throw new InvalidRequestParameterException("The start of the date window must be before its end.");
+        }
+        Specification<Reservation> specification = Specification
+                .where(ReservationSpecifications.hasStatus(criteria.getStatus()))
+                .and(ReservationSpecifications.hasRoom(criteria.getRoomId()))
+                .and(ReservationSpecifications.hasClient(criteria.getClientId()))
+                .and(ReservationSpecifications.checksOutAfter(criteria.getFrom()))
+                .and(ReservationSpecifications.checksInBefore(criteria.getTo()));
+        SortableProperties.check(pageable, SORTABLE_PROPERTIES);
+        return reservationRepository.findAll(specification, pageable).map(reservationMapper::toReservationDto);
+    }
+
     public void validateReservationDates(LocalDate checkInDate, LocalDate checkOutDate) {
         if (checkInDate == null || checkOutDate == null) {
             log.error("Check-in date or check-out date is null.");
@@ -81,7 +164,7 @@ public class ReservationService {
 
     public Reservation getReservationById(Long id) {
         log.info("Fetching reservation with ID: {}", id);
-        return reservationRepository.findById(id)
+        return reservationRepository.findWithRoomById(id)
                 .orElseThrow(() -> new NoSuchReservationException("Reservation not found!"));
     }
 
@@ -91,6 +174,31 @@ public class ReservationService {
                 .orElseThrow(() -> new NoSuchRoomException(ROOM_NOT_FOUND_MESSAGE));
     }
 
+    /**
+     * Helper method to check a booking names its room before the room is locked.
+     * @param reservationDTO the booking
+     * @return the room id
+     */
+    private Long requireRoomId(ReservationDTO reservationDTO) {
+        if (reservationDTO.getRoomId() == null) {
+            log.error("No room given for the booking.");
+            throw new NoSuchRoomException(ROOM_NOT_FOUND_MESSAGE);
+        }
+        return reservationDTO.getRoomId();
+    }
+
+    /**
+     * Helper method to load the room of a booking, forcing a version increment on commit so
+     * concurrent bookings of the same room from other instances fail with an optimistic lock error.
+     * @param id the room id
+     * @return the room
+     */
+    private Room getRoomForBooking(Long id) {
+        log.info("Fetching room with ID: {} for booking", id);
+        return roomRepository.findForBookingById(id)
+                .orElseThrow(() -> new NoSuchRoomException(ROOM_NOT_FOUND_MESSAGE));
+    }
+
     public Client getClientById(Long id) {
         log.info("Fetching client with ID: {}", id);
         return clientRepository.findById(id)
@@ -107,19 +215,55 @@ public class ReservationService {
         return reservationRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<ReservationDTO> getAllReservations() {
         log.info("Fetching all reservations.");
-        return reservationMapper.toReservationDTOList(getAllReservationsEntity());
+        return reservationRepository.findAllReservationDTOs();
     }
 
+    /**
+     * Writes every reservation to the stream as it is read from the database, so memory use does not
+     * depend on the number of reservations.
+     * @param format newline delimited JSON or a JSON array
+     * @param out the stream to write to
+     */
+    @Transactional(readOnly = true)
+    public void writeAllReservations(StreamFormat format, OutputStream out) throws IOException {
+        log.info("Streaming all reservations as {}.", format);
+        try (Stream<ReservationDTO> reservations = reservationRepository.streamAllReservationDTOs()) {
+            long count = jsonStreamWriter.write(reservations, format, out);
+            log.info("Streamed {} reservations.", count);
+        }
+    }
+
+    /**
+     * Moves a reservation, locking its new room before the transaction starts like {@link #createReservation}.
+     * @param id the reservation id
+     * @param reservationDTO the new stay
+     * @return the updated reservation
+     */
     public ReservationDTO updateReservation(Long id, ReservationDTO reservationDTO) {
         log.info("Updating reservation with ID: {}", id);
+        Long roomId = requireRoomId(reservationDTO);
+        return bookingLocks.withRoomLock(roomId,
+                () -> transactionOperations.execute(status -> rebookRoom(id, reservationDTO)));
+    }
+
+    private ReservationDTO rebookRoom(Long id, ReservationDTO reservationDTO) {
         Reservation reservation = getReservationById(id);
         Client client = getClientById(reservationDTO.getClientId());
-        Room room = getRoomById(reservationDTO.getRoomId());
+        Room room = getRoomForBooking(reservationDTO.getRoomId());
 
         validateNumberOfGuests(room, reservationDTO.getNumberOfGuests());
 
+        validateReservationDates(reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate());
+
+        validateRoomAvailability(room.getId(), reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate(), id);
+
+        Room previousRoom = reservation.getRoomId();
+        searchCacheInvalidator.stayChanged(previousRoom.getType(), nightlyPrice(previousRoom),
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+
         reservation.setClientId(client);
         reservation.setRoomId(room);
         reservation.setCheckInDate(reservationDTO.getCheckInDate());
@@ -128,45 +272,123 @@ public class ReservationService {
         reservation.setStatus(reservationDTO.getStatus());
         reservation.setTotalPrice(calculateTotalPrice(reservation));
 
-        Reservation updatedReservation = reservationRepository.save(reservation);
+        Reservation updatedReservation = saveReservation(reservation);
+        availabilityIndex.put(updatedReservation);
+        searchCacheInvalidator.stayChanged(room.getType(), nightlyPrice(room),
+                updatedReservation.getCheckInDate(), updatedReservation.getCheckOutDate());
         log.info("Reservation with ID: {} updated successfully.", updatedReservation.getId());
         return reservationMapper.toReservationDto(updatedReservation);
     }
 
+    // The room of the reservation is only known after loading it, and it becomes available again
+    @CacheEvict(cacheNames = CacheConfiguration.ROOMS, allEntries = true)
+    @Transactional
     public void deleteReservation(Long id) {
         log.info("Deleting reservation with ID: {}", id);
         Reservation reservation = getReservationById(id);
         Room room = getRoomById(reservationMapper.toReservationDto(reservation).getRoomId());
+        boolean wasAvailable = room.isAvailable();
         room.setAvailable(true);
         reservationRepository.delete(reservation);
+        availabilityIndex.remove(reservation.getId());
+        Double price = nightlyPrice(room);
+        if (!wasAvailable) {
+            searchCacheInvalidator.roomChanged(room.getType(), price);
+        }
+        searchCacheInvalidator.stayChanged(room.getType(), price,
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
     }
 
+    /**
+     * Lists every booked night of the room. The availability endpoints read the reservation table
+     * rather than the {@link RoomAvailabilityIndex}, which only sees the bookings made through this
+     * instance, so every instance answers with the bookings of all of them.
+     * @param roomId the room to describe
+     * @return the booked nights in ascending order
+     */
     public List<LocalDate> getUnavailableDatesForRoom(Long roomId) {
         log.info("Fetching unavailable dates for room ID: {}", roomId);
-        Room room = roomService.getRoomById(roomId);
-        List<Reservation> reservations = reservationRepository.findByRoomId(room);
-
+        Room room = getRoomById(roomId);
         List<LocalDate> unavailableDates = new ArrayList<>();
-        for (Reservation reservation : reservations) {
-            LocalDate checkInDate = reservation.getCheckInDate();
-            LocalDate checkOutDate = reservation.getCheckOutDate();
-
-            for (LocalDate date = checkInDate; !date.isEqual(checkOutDate); date = date.plusDays(1)) {
+        for (ReservationStay stay : reservationRepository.findStaysOfRoom(room.getId(), null, null)) {
+            for (LocalDate date = stay.getCheckInDate(); date.isBefore(stay.getCheckOutDate()); date = date.plusDays(1)) {
                 unavailableDates.add(date);
             }
         }
         return unavailableDates;
     }
 
+    /**
+     * Merges the room's stays overlapping the window into ranges of consecutive unavailable nights,
+     * read from the reservation table like {@link #getUnavailableDatesForRoom}. Stays come in check-in
+     * order and are clipped to the window, so the result grows with the number of bookings rather
+     * than the number of nights.
+     * @param roomId the room to describe
+     * @param from start of the window, inclusive; null for no lower bound
+     * @param to end of the window, exclusive; null for no upper bound
+     * @return merged [from, to) ranges in ascending order
+     */
+    public List<DateRangeDTO> getUnavailableRangesForRoom(Long roomId, LocalDate from, LocalDate to) {
+        log.info("Fetching unavailable date ranges for room ID: {} between {} and {}", roomId, from, to);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidRequestParameterException("The start of the window must be before its end.");
+        }
+        Room room = getRoomById(roomId);
+        List<DateRangeDTO> ranges = new ArrayList<>();
+        LocalDate rangeStart = null;
+        LocalDate rangeEnd = null;
+        for (ReservationStay stay : reservationRepository.findStaysOfRoom(room.getId(), from, to)) {
+            LocalDate start = from != null && stay.getCheckInDate().isBefore(from) ? from : stay.getCheckInDate();
+            LocalDate end = to != null && stay.getCheckOutDate().isAfter(to) ? to : stay.getCheckOutDate();
+            if (rangeEnd != null && !start.isAfter(rangeEnd)) {
+                if (end.isAfter(rangeEnd)) {
+                    rangeEnd = end;
+                }
+            } else {
+                if (rangeEnd != null) {
+                    ranges.add(new DateRangeDTO(rangeStart, rangeEnd));
+                }
+                rangeStart = start;
+                rangeEnd = end;
+            }
+        }
+        if (rangeEnd != null) {
+            ranges.add(new DateRangeDTO(rangeStart, rangeEnd));
+        }
+        return ranges;
+    }
+
+    /**
+     * Helper method to save a reservation, translating a violation of the database no-overlap
+     * constraint into the same error the availability check reports.
+     * @param reservation the reservation to save
+     * @return the saved reservation
+     */
+    private Reservation saveReservation(Reservation reservation) {
+        try {
+            return reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            String cause = e.getMostSpecificCause().getMessage();
+            if (cause != null && cause.contains(NO_OVERLAP_CONSTRAINT)) {
+                log.error("Room ID: {} was booked concurrently for these dates.", reservation.getRoomId().getId());
+                throw new RoomAlreadyBookedException("The room is already booked for the selected dates.");
+            }
+            throw e;
+        }
+    }
+
     private long calculateDays(Reservation reservation) {
         return ChronoUnit.DAYS.between(reservation.getCheckInDate(), reservation.getCheckOutDate());
     }
 
+    private Double nightlyPrice(Room room) {
+        return roomPricingService.getNightlyPrice(room.getId()).doubleValue();
+    }
+
     private Double calculateTotalPrice(Reservation reservation) {
         long days = calculateDays(reservation);
-        Room room = roomRepository.findById(reservation.getRoomId().getId())
-                .orElseThrow(() ->  new NoSuchRoomException(ROOM_NOT_FOUND_MESSAGE));
-        return room.getPrice() * days;
+        BigDecimal nightlyPrice = roomPricingService.getNightlyPrice(reservation.getRoomId().getId());
+        return nightlyPrice.multiply(BigDecimal.valueOf(days)).doubleValue();
     }
 
     /**
@@ -204,18 +426,25 @@ public class ReservationService {
     }
 
     public void validateRoomAvailability(Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
-        log.info("Validating availability for room ID: {} between {} and {}", roomId, checkInDate, checkOutDate);
+        validateRoomAvailability(roomId, checkInDate, checkOutDate, null);
+    }
 
-        List<Reservation> reservations = reservationRepository
-                .findByRoomId(roomRepository.findById(roomId)
-                        .orElseThrow(() -> new NoSuchRoomException(ROOM_NOT_FOUND_MESSAGE)));
+    /**
+     * Helper method to check the requested stay for overlapping reservations.
+     * The in-memory index rejects known conflicts without a query, the database check covers
+     * bookings made through other application instances.
+     * @param roomId the room to book
+     * @param checkInDate the check-in date of the stay
+     * @param checkOutDate the check-out date of the stay
+     * @param reservationId the reservation being updated, ignored in the check; null for new reservations
+     */
+    public void validateRoomAvailability(Long roomId, LocalDate checkInDate, LocalDate checkOutDate, Long reservationId) {
+        log.info("Validating availability for room ID: {} between {} and {}", roomId, checkInDate, checkOutDate);
 
-        for (Reservation reservation : reservations) {
-            if (checkInDate.isBefore(reservation.getCheckOutDate())
-                    && checkOutDate.isAfter(reservation.getCheckInDate())) {
-                log.error("Room ID: {} is already booked for these dates.", roomId);
-                throw new RoomAlreadyBookedException("The room is already booked for the selected dates.");
-            }
+        if (availabilityIndex.isBooked(roomId, checkInDate, checkOutDate, reservationId)
+                || reservationRepository.existsOverlapping(roomId, checkInDate, checkOutDate, reservationId)) {
+            log.error("Room ID: {} is already booked for these dates.", roomId);
+            throw new RoomAlreadyBookedException("The room is already booked for the selected dates.");
         }
         log.info("Room ID: {} is available for the selected dates.", roomId);
     }
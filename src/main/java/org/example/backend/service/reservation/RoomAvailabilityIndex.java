@@ -0,0 +1,145 @@
+package org.example.backend.service.reservation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.model.Reservation;
+import org.example.backend.repository.reservation.ReservationRepository;
+import org.example.backend.repository.reservation.ReservationStay;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of booked nights per room.
+ * <p>
+ * Stays of every room are kept sorted by check-in date, so an overlap check only looks at the
+ * few stays that start before the requested check-out date and could still reach the requested
+ * check-in date. The index is loaded from the reservation table on startup and kept in sync by
+ * {@link ReservationService}.
+ * <p>
+ * Each instance only sees its own bookings after startup, so the index only turns away stays it
+ * knows to be taken. Bookings are confirmed against the database, and the availability endpoints
+ * read the reservation table directly.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomAvailabilityIndex {
+
+    private final ReservationRepository reservationRepository;
+
+    private final Map<Long, RoomCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<Long, Stay> staysByReservationId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        log.info("Loading room availability index.");
+        calendars.clear();
+        staysByReservationId.clear();
+
+        List<ReservationStay> stays = reservationRepository.findAllStays();
+        for (ReservationStay stay : stays) {
+            add(new Stay(stay.getId(), stay.getRoomId(), stay.getCheckInDate(), stay.getCheckOutDate()));
+        }
+        log.info("Room availability index loaded with {} reservations for {} rooms.", stays.size(), calendars.size());
+    }
+
+    /**
+     * Adds the reservation to the index, replacing its previous dates and room if it was indexed before.
+     * Inside a transaction the change is applied once the transaction commits.
+     * @param reservation the saved reservation
+     */
+    public void put(Reservation reservation) {
+        Stay stay = new Stay(reservation.getId(), reservation.getRoomId().getId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+        afterCommit(() -> {
+            evict(stay.reservationId());
+            add(stay);
+        });
+    }
+
+    public void remove(Long reservationId) {
+        afterCommit(() -> evict(reservationId));
+    }
+
+    /**
+     * Checks whether any indexed reservation of the room overlaps the given stay.
+     * @param roomId the room to check
+     * @param checkInDate the first night of the stay
+     * @param checkOutDate the day of departure, exclusive
+     * @param ignoredReservationId reservation to leave out of the check (the one being updated), may be null
+     * @return true if the room is already booked for at least one of the nights
+     */
+    public boolean isBooked(Long roomId, LocalDate checkInDate, LocalDate checkOutDate, Long ignoredReservationId) {
+        RoomCalendar calendar = calendars.get(roomId);
+        if (calendar == null) {
+            return false;
+        }
+        LocalDate earliestReachingStart = checkInDate.minusDays(calendar.longestStay.get());
+        for (Stay stay : calendar.startingBefore(checkOutDate).descendingSet()) {
+            if (stay.checkInDate().isBefore(earliestReachingStart)) {
+                break;
+            }
+            if (stay.checkOutDate().isAfter(checkInDate) && !stay.reservationId().equals(ignoredReservationId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evict(Long reservationId) {
+        Stay stay = staysByReservationId.remove(reservationId);
+        if (stay != null) {
+            RoomCalendar calendar = calendars.get(stay.roomId());
+            if (calendar != null) {
+                calendar.stays.remove(stay);
+            }
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private void add(Stay stay) {
+        RoomCalendar calendar = calendars.computeIfAbsent(stay.roomId(), id -> new RoomCalendar());
+        calendar.stays.add(stay);
+        calendar.longestStay.accumulateAndGet(ChronoUnit.DAYS.between(stay.checkInDate(), stay.checkOutDate()), Math::max);
+        staysByReservationId.put(stay.reservationId(), stay);
+    }
+
+    private record Stay(Long reservationId, Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+        private static final Comparator<Stay> BY_CHECK_IN = Comparator.comparing(Stay::checkInDate)
+                .thenComparing(Stay::reservationId);
+    }
+
+    private static class RoomCalendar {
+        private final NavigableSet<Stay> stays = new ConcurrentSkipListSet<>(Stay.BY_CHECK_IN);
+        // Only ever grows, which keeps the overlap scan correct after removals.
+        private final AtomicLong longestStay = new AtomicLong();
+
+        private NavigableSet<Stay> startingBefore(LocalDate date) {
+            return stays.headSet(new Stay(Long.MIN_VALUE, null, date, date), false);
+        }
+    }
+}
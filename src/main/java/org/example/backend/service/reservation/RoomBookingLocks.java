@@ -0,0 +1,56 @@
+package org.example.backend.service.reservation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks that serialize bookings of the same room.
+ * <p>
+ * Each room id maps to one of a fixed number of locks, so bookings of different rooms rarely
+ * wait for each other. Take the lock before the booking transaction starts, so threads waiting for
+ * a busy room do not hold pooled connections, and run the transaction inside it. When called inside
+ * a transaction the lock is held until the transaction completes, so the next booking of the room
+ * sees the committed reservation.
+ */
+@Component
+public class RoomBookingLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public RoomBookingLocks(@Value("${hotel.booking.lock-stripes:64}") int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("There must be at least one booking lock stripe.");
+        }
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withRoomLock(Long roomId, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(roomId.hashCode(), stripes.length)];
+        lock.lock();
+        boolean releasedOnCompletion = false;
+        try {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+                releasedOnCompletion = true;
+            }
+            return action.get();
+        } finally {
+            if (!releasedOnCompletion) {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -2,15 +2,19 @@ package org.example.backend.service.room;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.backend.configs.CacheConfiguration;
 import org.example.backend.dtos.AmenityDTO;
 import org.example.backend.exception.exceptions.AmenityNameAlreadyExistsException;
 import org.example.backend.exception.exceptions.NoSuchAmenityException;
 import org.example.backend.mappers.AmenityMapper;
 import org.example.backend.model.Amenity;
-import org.example.backend.model.Room;
 import org.example.backend.repository.room.AmenityRepository;
-import org.example.backend.repository.room.RoomRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -22,8 +26,8 @@ public class AmenityService {
     private final AmenityRepository amenityRepository;
     private final AmenityMapper amenityMapper;
 
-    private final RoomAmenityService roomAmenityService;
-    private final RoomRepository roomRepository;
+    private final RoomSearchCacheInvalidator searchCacheInvalidator;
+    private final RoomPricingService roomPricingService;
 
     public AmenityDTO createAmenity(AmenityDTO amenityDTO) {
         log.info("Creating amenity with name: {}", amenityDTO.getName());
@@ -40,6 +44,7 @@ public class AmenityService {
                 .orElseThrow(() -> new NoSuchAmenityException("Amenity not found!"));
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.AMENITIES, key = "#p0")
     public AmenityDTO getAmenity(Long id) {
         log.info("Fetching amenity DTO with ID: {}", id);
         Amenity amenity = getAmenityById(id);
@@ -52,6 +57,14 @@ public class AmenityService {
         return amenityMapper.toAmenityDTOList(amenities);
     }
 
+    @Caching(
+            put = @CachePut(cacheNames = CacheConfiguration.AMENITIES, key = "#p0"),
+            // The amenity is listed in every room it is assigned to and priced into them
+            evict = {
+                    @CacheEvict(cacheNames = CacheConfiguration.ROOM_AMENITIES, allEntries = true),
+                    @CacheEvict(cacheNames = CacheConfiguration.ROOMS, allEntries = true)
+            })
+    @Transactional
     public AmenityDTO updateAmenity(Long id, AmenityDTO amenityDTO) {
         log.info("Updating amenity with ID: {}", id);
         Amenity existingAmenity = getAmenityById(id);
@@ -66,42 +79,38 @@ public class AmenityService {
         Amenity updatedAmenity = amenityRepository.save(existingAmenity);
         log.info("Amenity with ID: {} updated successfully.", updatedAmenity.getId());
 
-        updateRoomPricesForAmenity(updatedAmenity, oldAdditionalCost);
+        if (updatedAmenity.getAdditionalCost() != oldAdditionalCost) {
+            // Room prices are derived from amenity costs, so no room is rewritten. The rooms with the
+            // amenity can be of any type and price though, so every cached search may be stale.
+            roomPricingService.allPricesChanged();
+            searchCacheInvalidator.allRoomsChanged();
+        }
 
         return amenityMapper.toAmenityDTO(updatedAmenity);
     }
 
-    private void updateRoomPricesForAmenity(Amenity updatedAmenity, double oldAdditionalCost) {
-        log.info("Updating room prices based on the updated amenity price.");
-
-        if (updatedAmenity.getRooms() != null) {
-            for (Room room : updatedAmenity.getRooms()) {
-                double newPrice = room.getPrice() - oldAdditionalCost + updatedAmenity.getAdditionalCost();
-                room.setPrice(newPrice);
-                roomRepository.save(room);
-                log.info("Room with ID: {} price updated to: {}", room.getId(), newPrice);
-            }
-        } else {
-            log.warn("No rooms associated with the amenity to update.");
-        }
-    }
-
+    /**
+     * Deletes the amenity after removing it from every room it is assigned to. Takes the same three
+     * statements however many rooms have the amenity; their prices drop with it as they are derived.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.AMENITIES, key = "#p0"),
+            @CacheEvict(cacheNames = CacheConfiguration.ROOM_AMENITIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfiguration.ROOMS, allEntries = true)
+    })
+    @Transactional
     public void deleteAmenity(Long id) {
         log.info("Attempting to delete amenity with ID: {}", id);
         Amenity amenity = getAmenityById(id);
 
-        if (amenity.getRooms() != null) {
-            log.info("Removing amenity with ID: {} from all associated rooms.", id);
-            for (Room room : amenity.getRooms()) {
-                log.info("Removing amenity from room with ID: {}", room.getId());
-                roomAmenityService.removeAmenityFromRoom(room.getId(), id);
-            }
-        } else {
-            log.warn("No rooms associated with the amenity to remove.");
-        }
+        int removedAssignments = amenityRepository.deleteRoomAssignments(id);
+        amenityRepository.deleteAmenityById(id);
 
-        amenityRepository.delete(amenity);
-        log.info("Amenity with ID: {} deleted successfully.", id);
+        if (removedAssignments > 0 && amenity.getAdditionalCost() != 0) {
+            roomPricingService.allPricesChanged();
+            searchCacheInvalidator.allRoomsChanged();
+        }
+        log.info("Amenity with ID: {} deleted successfully, removed from {} rooms.", id, removedAssignments);
     }
 
     private void validateAmenityName(String name, Long amenityId) {
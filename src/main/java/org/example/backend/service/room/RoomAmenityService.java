@@ -2,7 +2,10 @@ package org.example.backend.service.room;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.backend.configs.CacheConfiguration;
 import org.example.backend.dtos.AmenityDTO;
+import org.example.backend.dtos.RoomDTO;
+import org.example.backend.dtos.RoomWithAmenitiesDTO;
 import org.example.backend.exception.exceptions.AmenityAlreadyAssignedException;
 import org.example.backend.exception.exceptions.NoSuchAmenityException;
 import org.example.backend.exception.exceptions.NoSuchRoomException;
@@ -10,10 +13,20 @@ import org.example.backend.mappers.AmenityMapper;
 import org.example.backend.model.Amenity;
 import org.example.backend.model.Room;
 import org.example.backend.repository.room.AmenityRepository;
+import org.example.backend.repository.room.RoomAmenityRow;
 import org.example.backend.repository.room.RoomRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -23,9 +36,15 @@ public class RoomAmenityService {
     private final RoomRepository roomRepository;
     private final AmenityRepository amenityRepository;
     private final AmenityMapper amenityMapper;
+    private final RoomSearchCacheInvalidator searchCacheInvalidator;
+    private final RoomPricingService roomPricingService;
     public static final String ROOM_NOT_FOUND_MESSAGE = "Room not found!";
     private static final String AMENITY_NOT_FOUND = "Amenity not found!";
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.ROOM_AMENITIES, key = "#p0"),
+            @CacheEvict(cacheNames = CacheConfiguration.ROOMS, key = "#p0")
+    })
     public void assignAmenityToRoom(Long roomId, Long amenityId) {
         log.info("Attempting to assign amenity with ID: {} to room with ID: {}", amenityId, roomId);
 
@@ -41,12 +60,16 @@ public class RoomAmenityService {
         }
 
         room.getAmenities().add(amenity);
-        double newPrice = room.getPrice() + amenity.getAdditionalCost();
-        room.setPrice(newPrice);
         roomRepository.save(room);
-        log.info("Amenity assigned successfully. Room price updated to {}", newPrice);
+        // The room price is derived from its amenities, only the cached price and searches need to know it moved
+        roomPricingService.priceChanged(roomId);
+        double price = RoomPricingService.nightlyPrice(room).doubleValue();
+        searchCacheInvalidator.roomChanged(room.getType(), price - amenity.getAdditionalCost());
+        searchCacheInvalidator.roomChanged(room.getType(), price);
+        log.info("Amenity assigned successfully to room with ID: {}", roomId);
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.ROOM_AMENITIES, key = "#p0")
     public List<AmenityDTO> getAmenitiesByRoom(Long roomId) {
         log.info("Fetching amenities for room with ID: {}", roomId);
 
@@ -58,6 +81,34 @@ public class RoomAmenityService {
         return amenityMapper.toAmenityDTOList(amenities);
     }
 
+    /**
+     * Lists one slice of rooms, each with its amenities. The rooms are read with one query and the
+     * amenities of all of them with a second one, whatever the page size.
+     * @param pageable page number, size and sort order of the rooms
+     * @return the rooms of the slice with their amenities
+     */
+    @Transactional(readOnly = true)
+    public Slice<RoomWithAmenitiesDTO> getRoomsWithAmenities(Pageable pageable) {
+        log.info("Fetching rooms with amenities with pagination: {}", pageable);
+        Slice<RoomDTO> rooms = roomRepository.findRoomDTOSlice(pageable);
+        if (!rooms.hasContent()) {
+            return rooms.map(room -> new RoomWithAmenitiesDTO(room, List.of()));
+        }
+
+        List<Long> roomIds = rooms.getContent().stream().map(RoomDTO::getId).toList();
+        Map<Long, List<AmenityDTO>> amenitiesByRoom = new HashMap<>();
+        for (RoomAmenityRow row : amenityRepository.findAmenitiesOfRooms(roomIds)) {
+            amenitiesByRoom.computeIfAbsent(row.roomId(), id -> new ArrayList<>())
+                    .add(new AmenityDTO(row.amenityId(), row.name(), row.description(), row.additionalCost()));
+        }
+        log.info("Found {} rooms with amenities.", rooms.getNumberOfElements());
+        return rooms.map(room -> new RoomWithAmenitiesDTO(room, amenitiesByRoom.getOrDefault(room.getId(), List.of())));
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.ROOM_AMENITIES, key = "#p0"),
+            @CacheEvict(cacheNames = CacheConfiguration.ROOMS, key = "#p0")
+    })
     public void removeAmenityFromRoom(Long roomId, Long amenityId) {
         log.info("Attempting to remove amenity with ID: {} from room with ID: {}", amenityId, roomId);
         Room room = roomRepository.findById(roomId)
@@ -72,10 +123,12 @@ public class RoomAmenityService {
         }
 
         room.getAmenities().remove(amenity);
-        double newPrice = room.getPrice() - amenity.getAdditionalCost();
-        room.setPrice(newPrice);
         roomRepository.save(room);
-        log.info("Amenity removed successfully. Room price updated to {}", newPrice);
+        roomPricingService.priceChanged(roomId);
+        double price = RoomPricingService.nightlyPrice(room).doubleValue();
+        searchCacheInvalidator.roomChanged(room.getType(), price + amenity.getAdditionalCost());
+        searchCacheInvalidator.roomChanged(room.getType(), price);
+        log.info("Amenity removed successfully from room with ID: {}", roomId);
 
     }
 }
@@ -0,0 +1,97 @@
+package org.example.backend.service.room;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.configs.CacheConfiguration;
+import org.example.backend.exception.exceptions.NoSuchRoomException;
+import org.example.backend.model.Amenity;
+import org.example.backend.model.Room;
+import org.example.backend.repository.room.RoomRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+/**
+ * Works out the nightly price of a room from its base price and the cost of its amenities.
+ * <p>
+ * Rooms only store their base price, so assigning, repricing or deleting an amenity does not
+ * rewrite any room and no rounding error builds up in a stored price. The price of a room is
+ * cached until its base price or its amenities change.
+ * <p>
+ * A changed price is removed from the cache right away and again once the transaction that changed
+ * it commits, so a booking that cached the old price while the change was not yet committed does not
+ * keep it. Only a booking that read the old price before the commit and stores it after the second
+ * removal can still leave it cached until it expires.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomPricingService {
+
+    private final RoomRepository roomRepository;
+    private final CacheManager cacheManager;
+
+    @Cacheable(cacheNames = CacheConfiguration.ROOM_PRICES, key = "#p0")
+    public BigDecimal getNightlyPrice(Long roomId) {
+        log.info("Calculating nightly price of room with ID: {}", roomId);
+        return roomRepository.findNightlyPrice(roomId)
+                .orElseThrow(() -> new NoSuchRoomException(RoomAmenityService.ROOM_NOT_FOUND_MESSAGE));
+    }
+
+    public void priceChanged(Long roomId) {
+        evictNowAndAfterCommit(cache -> cache.evict(roomId));
+    }
+
+    public void allPricesChanged() {
+        evictNowAndAfterCommit(Cache::clear);
+    }
+
+    /**
+     * Adds up the nightly price of a room already in memory, without going to the database.
+     * @param room the room with its base price and amenities
+     * @return the base price plus the cost of every amenity of the room
+     */
+    public static BigDecimal nightlyPrice(Room room) {
+        return room.getBasePrice().add(amenityCost(room));
+    }
+
+    /**
+     * Adds up the cost of the amenities of a room already in memory.
+     * @param room the room with its amenities
+     * @return the cost of every amenity of the room, zero if it has none
+     */
+    public static BigDecimal amenityCost(Room room) {
+        BigDecimal cost = BigDecimal.ZERO;
+        if (room.getAmenities() != null) {
+            for (Amenity amenity : room.getAmenities()) {
+                cost = cost.add(BigDecimal.valueOf(amenity.getAdditionalCost()));
+            }
+        }
+        return cost;
+    }
+
+    private void evictNowAndAfterCommit(Consumer<Cache> eviction) {
+        evict(eviction);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(eviction);
+                }
+            });
+        }
+    }
+
+    private void evict(Consumer<Cache> eviction) {
+        Cache cache = cacheManager.getCache(CacheConfiguration.ROOM_PRICES);
+        if (cache != null) {
+            eviction.accept(cache);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.backend.service.room;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.backend.configs.CacheConfiguration;
+import org.example.backend.criteria.RoomSearchKey;
+import org.example.backend.enums.RoomType;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.function.Predicate;
+
+/**
+ * Removes cached room searches whose results a change to a room or a reservation could alter.
+ * <p>
+ * A room change affects the searches whose type and price filters the room passes, before or after
+ * the change. A reservation change only affects the searches of the room whose dates overlap the stay.
+ * Inside a transaction the entries are removed once the transaction commits. A search that read the
+ * old rows just before the commit can still cache them; the time to live of the cache bounds how long.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoomSearchCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    public void allRoomsChanged() {
+        evictAfterCommit(key -> true);
+    }
+
+    public void roomChanged(RoomType type, Double price) {
+        evictAfterCommit(key -> key.matchesRoom(type, price));
+    }
+
+    public void stayChanged(RoomType type, Double price, LocalDate checkInDate, LocalDate checkOutDate) {
+        evictAfterCommit(key -> key.matchesRoom(type, price) && key.overlaps(checkInDate, checkOutDate));
+    }
+
+    private void evictAfterCommit(Predicate<RoomSearchKey> affected) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(affected);
+                }
+            });
+        } else {
+            evict(affected);
+        }
+    }
+
+    private void evict(Predicate<RoomSearchKey> affected) {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfiguration.ROOM_SEARCH);
+        if (cache == null) {
+            return;
+        }
+        boolean removed = cache.getNativeCache().asMap().keySet()
+                .removeIf(key -> key instanceof RoomSearchKey searchKey && affected.test(searchKey));
+        if (removed) {
+            log.debug("Removed stale room searches from the cache.");
+        }
+    }
+}
@@ -1,28 +1,52 @@
 package org.example.backend.service.room;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.backend.configs.CacheConfiguration;
 import org.example.backend.criteria.RoomSearchCriteria;
-import org.example.backend.dtos.AmenityDTO;
+import org.example.backend.dtos.MultipleRoomsDTO;
+import org.example.backend.dtos.MultipleRoomsResultDTO;
 import org.example.backend.dtos.RoomDTO;
+import org.example.backend.dtos.RoomDeletionResultDTO;
+import org.example.backend.dtos.RoomOccupancyDTO;
 import org.example.backend.enums.RoomType;
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
 import org.example.backend.exception.exceptions.NoSuchRoomException;
 import org.example.backend.exception.exceptions.RoomDeletionException;
 import org.example.backend.exception.exceptions.RoomNumberAlreadyExistsException;
 
 import org.example.backend.mappers.RoomMapper;
-import org.example.backend.model.Reservation;
 import org.example.backend.model.Room;
 import org.example.backend.repository.reservation.ReservationRepository;
 import org.example.backend.repository.room.RoomCriteriaRepository;
+import org.example.backend.repository.room.RoomOccupancyRow;
 import org.example.backend.repository.room.RoomRepository;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Pageable;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -34,12 +58,21 @@ public class RoomService {
     private final RoomMapper roomMapper;
 
     private final ReservationRepository reservationRepository;
+    private final ObjectMapper objectMapper;
+    private final RoomSearchCacheInvalidator searchCacheInvalidator;
+    private final RoomPricingService roomPricingService;
+    public static final int MAX_CALENDAR_DAYS = 366;
+    public static final int MAX_ROOM_NUMBER = 9999;
 
     public RoomDTO createRoom(RoomDTO roomDTO) {
         log.info("Creating room with number: {}", roomDTO.getRoomNumber());
         validateRoomNumber(roomDTO.getRoomNumber(), null);
         Room room = roomMapper.toRoom(roomDTO);
+        room.setBasePrice(basePriceOf(roomDTO, BigDecimal.ZERO));
+        // A new room has no amenities yet, so it costs its base price
+        room.setPrice(room.getBasePrice().doubleValue());
         Room savedRoom = roomRepository.save(room);
+        searchCacheInvalidator.roomChanged(savedRoom.getType(), savedRoom.getPrice());
         log.info("Room created successfully with ID: {}", savedRoom.getId());
         return roomMapper.toRoomDto(savedRoom);
     }
@@ -52,15 +85,19 @@ public class RoomService {
 
     private void validateRoomNumber(String roomNumber, Long roomId) {
         log.info("Validating room number: {}", roomNumber);
-        if (roomRepository.existsByRoomNumber(roomNumber) && (roomId == null || !roomRepository.findById(roomId).get().getRoomNumber().equals(roomNumber))) {
-                throw new RoomNumberAlreadyExistsException("Room with number " + roomNumber + " already exists.");
-            }
-
+        boolean taken = roomId == null
+                ? roomRepository.existsByRoomNumber(roomNumber)
+                : roomRepository.existsByRoomNumberAndIdNot(roomNumber, roomId);
+        if (taken) {
+            throw new RoomNumberAlreadyExistsException("Room with number " + roomNumber + " already exists.");
+        }
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.ROOMS, key = "#p0")
     public RoomDTO getRoom(Long id) {
         log.info("Fetching room: {}", id);
         Room room = getRoomById(id);
+        room.setPrice(roomPricingService.getNightlyPrice(id).doubleValue());
         return roomMapper.toRoomDto(room);
     }
 
@@ -69,31 +106,106 @@ public class RoomService {
         return roomRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<RoomDTO> getAllRoomsDTO() {
         log.info("Fetching all rooms in DTO format.");
-        return roomMapper.toRoomDTOList(getAllRoomsEntity());
+        return roomRepository.findAllRoomDTOs();
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.ROOM_SEARCH,
+            key = "T(org.example.backend.criteria.RoomSearchKey).of(#p0, #p1)")
     public List<RoomDTO> getAllRooms(RoomSearchCriteria roomSearchCriteria, Pageable pageable) {
         log.info("Fetching rooms with pagination: {}", pageable);
         return roomMapper.toRoomDTOList(roomCriteriaRepository.getAllRooms(roomSearchCriteria, pageable));
     }
 
+    /**
+     * Helper method to validate the window of an occupancy calendar before streaming starts.
+     * @param from the first night of the window
+     * @param to the day after the last night of the window
+     */
+    public void validateCalendarWindow(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidRequestParameterException("The calendar window must have a start date before its end date.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_CALENDAR_DAYS) {
+            throw new InvalidRequestParameterException("The calendar window cannot be longer than " + MAX_CALENDAR_DAYS + " days.");
+        }
+    }
+
+    /**
+     * Writes the occupancy of every room matching the criteria as newline delimited JSON, one
+     * {@link RoomOccupancyDTO} per room. Rooms and their reservations are read from a single streamed
+     * query, so memory use does not depend on the number of rooms.
+     * @param criteria filters on room type and price
+     * @param from the first night of the window
+     * @param to the day after the last night of the window
+     * @param out the stream to write to
+     */
+    @Transactional(readOnly = true)
+    public void writeOccupancyCalendar(RoomSearchCriteria criteria, LocalDate from, LocalDate to, OutputStream out)
+            throws IOException {
+        log.info("Streaming occupancy calendar between {} and {}", from, to);
+        int nights = (int) ChronoUnit.DAYS.between(from, to);
+        int rooms = 0;
+
+        try (Stream<RoomOccupancyRow> rows = roomCriteriaRepository.streamOccupancy(criteria, from, to);
+             SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+            Iterator<RoomOccupancyRow> iterator = rows.iterator();
+            RoomOccupancyRow current = null;
+            BitSet bookedNights = new BitSet(nights);
+
+            while (iterator.hasNext()) {
+                RoomOccupancyRow row = iterator.next();
+                if (current != null && !current.roomId().equals(row.roomId())) {
+                    writer.write(toOccupancy(current, bookedNights, nights));
+                    bookedNights.clear();
+                    rooms++;
+                }
+                current = row;
+                if (row.checkInDate() != null) {
+                    int firstNight = (int) Math.max(0, ChronoUnit.DAYS.between(from, row.checkInDate()));
+                    int lastNight = (int) Math.min(nights, ChronoUnit.DAYS.between(from, row.checkOutDate()));
+                    bookedNights.set(firstNight, lastNight);
+                }
+            }
+            if (current != null) {
+                writer.write(toOccupancy(current, bookedNights, nights));
+                rooms++;
+            }
+        }
+        log.info("Streamed occupancy calendar for {} rooms.", rooms);
+    }
+
+    private RoomOccupancyDTO toOccupancy(RoomOccupancyRow row, BitSet bookedNights, int nights) {
+        byte[] bytes = Arrays.copyOf(bookedNights.toByteArray(), (nights + 7) / 8);
+        return new RoomOccupancyDTO(row.roomId(), row.roomNumber(), Base64.getEncoder().encodeToString(bytes));
+    }
+
+    @CachePut(cacheNames = CacheConfiguration.ROOMS, key = "#p0")
+    @Transactional
     public RoomDTO updateRoom(Long id, RoomDTO roomDTO) {
         log.info("Updating room with ID: {}", id);
         Room room = getRoomById(id);
         validateRoomNumber(roomDTO.getRoomNumber(), id);
+        RoomType previousType = room.getType();
+        Double previousPrice = RoomPricingService.nightlyPrice(room).doubleValue();
 
         room.setRoomNumber(roomDTO.getRoomNumber());
-        room.setPrice(roomDTO.getPrice());
+        room.setBasePrice(basePriceOf(roomDTO, RoomPricingService.amenityCost(room)));
         room.setAvailable(roomDTO.isAvailable());
         room.setType(roomDTO.getType());
         room.setDescription(roomDTO.getDescription());
         Room updatedRoom = roomRepository.save(room);
+        updatedRoom.setPrice(RoomPricingService.nightlyPrice(updatedRoom).doubleValue());
+        roomPricingService.priceChanged(id);
+        searchCacheInvalidator.roomChanged(previousType, previousPrice);
+        searchCacheInvalidator.roomChanged(updatedRoom.getType(), updatedRoom.getPrice());
         log.info("Room with ID: {} updated successfully.", updatedRoom.getId());
         return roomMapper.toRoomDto(updatedRoom);
     }
 
+    @CacheEvict(cacheNames = CacheConfiguration.ROOMS, key = "#p0")
     public void deleteRoom(Long id) {
         log.info("Attempting to delete room with ID: {}", id);
         Room room = getRoomById(id);
@@ -103,6 +215,7 @@ public class RoomService {
             throw new RoomDeletionException("Room with ID: " + id + " has active reservations and cannot be deleted.");
         }
 
+        Double price = RoomPricingService.nightlyPrice(room).doubleValue();
         log.info("Clearing all amenities associated with room with ID: {}", id);
         if (room.getAmenities() != null) {
             room.getAmenities().clear();
@@ -113,62 +226,122 @@ public class RoomService {
         roomRepository.save(room);
 
         roomRepository.delete(room);
+        roomPricingService.priceChanged(id);
+        searchCacheInvalidator.roomChanged(room.getType(), price);
         log.info("Room with ID: {} deleted successfully.", id);
     }
 
+    @Transactional
     public List<RoomDTO> createMultipleRooms(String startRoomNumber, int numberOfRooms, double price, RoomType roomType) {
+        return createRoomBlock(startRoomNumber, numberOfRooms, price, roomType).getCreated();
+    }
+
+    /**
+     * Creates a block of consecutively numbered rooms in one transaction. Taken room numbers are found
+     * with a single query and skipped, the new rooms are inserted in JDBC batches.
+     * @param startRoomNumber the number of the first room
+     * @param numberOfRooms how many room numbers to try
+     * @param price the price per night of every room
+     * @param roomType the type of every room
+     * @return the created rooms and the skipped room numbers
+     */
+    @Transactional
+    public MultipleRoomsResultDTO createRoomBlock(String startRoomNumber, int numberOfRooms, double price, RoomType roomType) {
         log.info("Creating {} rooms starting from room number: {}", numberOfRooms, startRoomNumber);
 
         int startNumber = Integer.parseInt(startRoomNumber);
-        List<RoomDTO> createdRooms = new ArrayList<>();
-
-        for (int i = 0; i < numberOfRooms; i++) {
-            String currentRoomNumber = String.valueOf(startNumber + i);
-
-            if (roomRepository.existsByRoomNumber(currentRoomNumber)) {
-                log.info("Room number {} already exists. Skipping.", currentRoomNumber);
+        validateRoomBlock(startNumber, numberOfRooms);
+        List<String> roomNumbers = IntStream.range(0, numberOfRooms)
+                .mapToObj(i -> String.valueOf(startNumber + i))
+                .toList();
+        Set<String> existingRoomNumbers = roomRepository.findExistingRoomNumbers(roomNumbers);
+
+        List<Room> rooms = new ArrayList<>();
+        List<String> skippedRoomNumbers = new ArrayList<>();
+        for (String roomNumber : roomNumbers) {
+            if (existingRoomNumbers.contains(roomNumber)) {
+                skippedRoomNumbers.add(roomNumber);
                 continue;
             }
+            Room room = new Room();
+            room.setRoomNumber(roomNumber);
+            room.setAvailable(true);
+            room.setType(roomType);
+            room.setBasePrice(BigDecimal.valueOf(price));
+            room.setPrice(price);
+            rooms.add(room);
+        }
 
-            RoomDTO roomDTO = new RoomDTO();
-            roomDTO.setRoomNumber(currentRoomNumber);
-            roomDTO.setAvailable(true);
-            roomDTO.setType(roomType);
-            roomDTO.setPrice(price);
-
-            RoomDTO createdRoom = createRoom(roomDTO);
-            log.info(createdRoom.toString());
-            createdRooms.add(createdRoom);
+        List<Room> createdRooms = roomRepository.saveAll(rooms);
+        if (!createdRooms.isEmpty()) {
+            searchCacheInvalidator.roomChanged(roomType, price);
         }
+        log.info("Created {} rooms, skipped {} existing room numbers.", createdRooms.size(), skippedRoomNumbers.size());
+        return new MultipleRoomsResultDTO(roomMapper.toRoomDTOList(createdRooms), skippedRoomNumbers);
+    }
 
-        log.info("Created {} rooms.", createdRooms.size());
-        return createdRooms;
+    /**
+     * Helper method to validate the size of a block of rooms before any room number is looked up.
+     * @param startNumber the number of the first room
+     * @param numberOfRooms how many room numbers to try
+     */
+    private void validateRoomBlock(int startNumber, int numberOfRooms) {
+        if (numberOfRooms < 1 || numberOfRooms > MultipleRoomsDTO.MAX_ROOMS) {
+            throw new InvalidRequestParameterException("The number of rooms must be between 1 and " + MultipleRoomsDTO.MAX_ROOMS + ".");
+        }
+        if (startNumber + numberOfRooms - 1 > MAX_ROOM_NUMBER) {
+            throw new InvalidRequestParameterException("The last room of the block would be numbered above " + MAX_ROOM_NUMBER + ".");
+        }
     }
 
-    public void deleteAllRooms() {
+    /**
+     * Deletes every room without reservations, together with its amenity assignments, in two
+     * set-based statements. Rooms with reservations are kept.
+     * @return the number of deleted rooms and of rooms kept because they have reservations
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.ROOMS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfiguration.ROOM_AMENITIES, allEntries = true)
+    })
+    @Transactional
+    public RoomDeletionResultDTO deleteAllRooms() {
         log.info("Attempting to delete all rooms.");
 
-        List<Room> rooms = getAllRoomsEntity();
-        for (Room room : rooms) {
-            try {
-                log.info("Attempting to delete room with ID: {}", room.getId());
-                if (hasReservations(room)) {
-                    log.warn("Room with ID: {} has active reservations. Skipping deletion.", room.getId());
-                    continue;
-                }
-                roomRepository.delete(room);
-                log.info("Room with ID: {} deleted successfully.", room.getId());
-            } catch (Exception e) {
-                log.error("Failed to delete room with ID: {}. Reason: {}", room.getId(), e.getMessage());
-            }
+        int amenityLinks = roomRepository.deleteAmenityLinksOfUnreservedRooms();
+        int deleted = roomRepository.deleteUnreservedRooms();
+        long skipped = roomRepository.count();
+        if (deleted > 0) {
+            roomPricingService.allPricesChanged();
+            searchCacheInvalidator.allRoomsChanged();
+        }
+
+        log.info("Deleted {} rooms and {} amenity assignments, kept {} rooms with reservations.",
+                deleted, amenityLinks, skipped);
+        return new RoomDeletionResultDTO(deleted, skipped);
+    }
+
+    /**
+     * Helper method to read the base price of a room being created or updated. A client that only
+     * sends a price sends the price it read, which includes the cost of the room's amenities, so that
+     * cost is taken off again.
+     * @param roomDTO the room sent by the client
+     * @param amenityCost the cost of the amenities the room has now
+     * @return the base price of the room
+     */
+    private BigDecimal basePriceOf(RoomDTO roomDTO, BigDecimal amenityCost) {
+        if (roomDTO.getBasePrice() != null) {
+            return roomDTO.getBasePrice();
+        }
+        BigDecimal basePrice = BigDecimal.valueOf(roomDTO.getPrice()).subtract(amenityCost);
+        if (basePrice.signum() <= 0) {
+            throw new InvalidRequestParameterException("The price must be higher than the cost of the room's amenities.");
         }
-        log.info("Completed deletion attempt for all rooms.");
+        return basePrice;
     }
 
     private boolean hasReservations(Room room) {
         log.info("Checking for active reservations for room ID: {}", room.getId());
-        List<Reservation> reservations = reservationRepository.findByRoomId(room);
-        return !reservations.isEmpty();
+        return reservationRepository.existsByRoomId_Id(room.getId());
     }
 
 }
@@ -0,0 +1,28 @@
+package org.example.backend.specifications;
+
+import org.example.backend.model.Payment;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public class PaymentSpecifications {
+
+    private PaymentSpecifications() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static Specification<Payment> hasStatus(String status) {
+        return (root, query, criteriaBuilder) ->
+                status == null ? null : criteriaBuilder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Payment> paidOnOrAfter(LocalDate date) {
+        return (root, query, criteriaBuilder) ->
+                date == null ? null : criteriaBuilder.greaterThanOrEqualTo(root.get("paymentDate"), date);
+    }
+
+    public static Specification<Payment> paidOnOrBefore(LocalDate date) {
+        return (root, query, criteriaBuilder) ->
+                date == null ? null : criteriaBuilder.lessThanOrEqualTo(root.get("paymentDate"), date);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.backend.specifications;
+
+import org.example.backend.model.Reservation;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public class ReservationSpecifications {
+
+    private ReservationSpecifications() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    public static Specification<Reservation> hasStatus(String status) {
+        return (root, query, criteriaBuilder) ->
+                status == null ? null : criteriaBuilder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Reservation> hasRoom(Long roomId) {
+        return (root, query, criteriaBuilder) ->
+                roomId == null ? null : criteriaBuilder.equal(root.get("roomId").get("id"), roomId);
+    }
+
+    public static Specification<Reservation> hasClient(Long clientId) {
+        return (root, query, criteriaBuilder) ->
+                clientId == null ? null : criteriaBuilder.equal(root.get("clientId").get("id"), clientId);
+    }
+
+    public static Specification<Reservation> checksOutAfter(LocalDate date) {
+        return (root, query, criteriaBuilder) ->
+                date == null ? null : criteriaBuilder.greaterThan(root.get("checkOutDate"), date);
+    }
+
+    public static Specification<Reservation> checksInBefore(LocalDate date) {
+        return (root, query, criteriaBuilder) ->
+                date == null ? null : criteriaBuilder.lessThan(root.get("checkInDate"), date);
+    }
+}
@@ -1,10 +1,19 @@
 package org.example.backend.specifications;
 
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.example.backend.enums.RoomType;
+import org.example.backend.model.Amenity;
 import org.example.backend.model.Room;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
+
 public class RoomSpecifications {
 
     private RoomSpecifications() {
@@ -16,18 +25,35 @@ public class RoomSpecifications {
                 type == null ? null : criteriaBuilder.equal(root.get("type"), type);
     }
 
+    // A room costs at least its base price, so the (type, base_price) index can narrow the rooms first
     public static Specification<Room> hasPriceLessThanOrEqualTo(Double maxPrice) {
         return (root, query, criteriaBuilder) ->
-                maxPrice == null ? null : criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice);
+                maxPrice == null ? null : criteriaBuilder.and(
+                        criteriaBuilder.lessThanOrEqualTo(root.get("basePrice"), BigDecimal.valueOf(maxPrice)),
+                        criteriaBuilder.lessThanOrEqualTo(price(root, query, criteriaBuilder), BigDecimal.valueOf(maxPrice)));
     }
 
     public static Specification<Room> hasPriceGreaterThanOrEqualTo(Double minPrice) {
         return (root, query, criteriaBuilder) ->
-                minPrice == null ? null : criteriaBuilder.greaterThanOrEqualTo(root.get("price"), minPrice);
+                minPrice == null ? null : criteriaBuilder.greaterThanOrEqualTo(price(root, query, criteriaBuilder), BigDecimal.valueOf(minPrice));
     }
 
     public static Specification<Room> isAvailable(Boolean available) {
         return (root, query, criteriaBuilder) ->
                 available == null ? null : criteriaBuilder.equal(root.get("available"), available);
     }
+
+    /**
+     * Builds the price of a room: its base price plus the cost of its amenities, zero if it has none.
+     * The sum stays numeric like the columns, so compare it with {@link BigDecimal} bounds.
+     */
+    public static Expression<BigDecimal> price(Root<Room> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        Subquery<BigDecimal> amenityCost = query.subquery(BigDecimal.class);
+        Root<Room> pricedRoom = amenityCost.from(Room.class);
+        Join<Room, Amenity> amenity = pricedRoom.join("amenities");
+        amenityCost.select(criteriaBuilder.sum(amenity.<Double>get("additionalCost")).as(BigDecimal.class))
+                .where(criteriaBuilder.equal(pricedRoom.get("id"), root.get("id")));
+        return criteriaBuilder.sum(root.<BigDecimal>get("basePrice"),
+                criteriaBuilder.coalesce(amenityCost, BigDecimal.ZERO));
+    }
 }
@@ -1,5 +1,6 @@
 package org.example.backend;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.backend.dtos.AmenityDTO;
 import org.example.backend.dtos.ClientDTO;
 import org.example.backend.dtos.ReservationDTO;
@@ -19,13 +20,20 @@ import org.example.backend.repository.room.RoomCriteriaRepository;
 import org.example.backend.repository.room.RoomRepository;
 import org.example.backend.service.client.ClientService;
 import org.example.backend.service.reservation.ReservationService;
+import org.example.backend.service.reservation.RoomAvailabilityIndex;
+import org.example.backend.service.reservation.RoomBookingLocks;
 import org.example.backend.service.room.AmenityService;
 import org.example.backend.service.room.RoomAmenityService;
+import org.example.backend.service.room.RoomPricingService;
+import org.example.backend.service.room.RoomSearchCacheInvalidator;
 import org.example.backend.service.room.RoomService;
 import org.junit.jupiter.api.BeforeEach;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public class BaseTestsSetup {
@@ -54,6 +62,24 @@ public class BaseTestsSetup {
     @Mock
     public AmenityMapper amenityMapper;
 
+    @Mock
+    public RoomAvailabilityIndex roomAvailabilityIndex;
+
+    @Mock
+    public RoomSearchCacheInvalidator roomSearchCacheInvalidator;
+
+    @Mock
+    public RoomPricingService roomPricingService;
+
+    @Spy
+    public RoomBookingLocks roomBookingLocks = new RoomBookingLocks(4);
+
+    @Spy
+    public TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @Spy
+    public ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     public ClientService clientService;
 
@@ -110,6 +136,7 @@ public class BaseTestsSetup {
         room.setId(1L);
         room.setRoomNumber("101");
         room.setPrice(150.00);
+        room.setBasePrice(new BigDecimal("150.00"));
         room.setAvailable(true);
         room.setType(RoomType.SINGLE);
         room.setDescription("A comfortable room.");
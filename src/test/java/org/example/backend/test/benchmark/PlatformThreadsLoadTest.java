@@ -0,0 +1,7 @@
+package org.example.backend.test.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadsLoadTest extends ThreadModeLoadTest {
+}
@@ -0,0 +1,144 @@
+package org.example.backend.test.benchmark;
+
+import org.example.backend.criteria.RoomSearchCriteria;
+import org.example.backend.enums.RoomType;
+import org.example.backend.model.Room;
+import org.example.backend.repository.room.RoomCriteriaRepository;
+import org.example.backend.test.AbstractIntegration;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Explains the room search query {@link RoomCriteriaRepository} generates, with its amenity cost subquery
+ * and correlated NOT EXISTS date filter, on 1,000 rooms and 100,000 reservations, and times the search
+ * through the repository. The SQL is captured from Hibernate with the criteria values inlined, so the plan
+ * is the one PostgreSQL picks for those values. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "org.example.backend.test.benchmark.RoomSearchQueryPlanBenchmark$SqlCapture",
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RoomSearchQueryPlanBenchmark extends AbstractIntegration {
+
+    private static final int ROOMS = 1_000;
+    private static final int STAYS_PER_ROOM = 100;
+    private static final int RUNS = 20;
+    private static final LocalDate FIRST_STAY = LocalDate.of(2026, 1, 1);
+    private static final String[] TYPES = {"SINGLE", "DOUBLE", "TWIN", "DELUXE"};
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoomCriteriaRepository roomCriteriaRepository;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into client (first_name, last_name, email, phone, password) "
+                + "values ('Bench', 'Mark', 'bench@example.com', '+1234567890', 'secret')");
+        Long clientId = jdbcTemplate.queryForObject("select id from client where email = 'bench@example.com'", Long.class);
+
+        List<Object[]> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(new Object[]{String.valueOf(5000 + i), 50 + (i * 7) % 400, TYPES[i % TYPES.length]});
+        }
+        jdbcTemplate.batchUpdate("insert into room (room_number, base_price, available, type) values (?, ?, true, ?)", rooms);
+        List<Long> roomIds = jdbcTemplate.queryForList("select id from room", Long.class);
+
+        // Every third room has an amenity, so the price subquery finds costs to add
+        Long minibar = jdbcTemplate.queryForObject("insert into amenity (name, description, additional_cost) "
+                + "values ('Bench Minibar', 'Stocked minibar', 12.50) returning id", Long.class);
+        jdbcTemplate.update("insert into room_amenities (room_id, amenity_id) select id, ? from room where id % 3 = 0", minibar);
+
+        List<Object[]> reservations = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            for (int stay = 0; stay < STAYS_PER_ROOM; stay++) {
+                // Stagger rooms so every search window finds some rooms free and some booked
+                LocalDate checkIn = FIRST_STAY.plusDays(stay * 4L + roomId % 4);
+                reservations.add(new Object[]{Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(3)), 300.0,
+                        "CONFIRMED", clientId, roomId});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into reservation (check_in_date, check_out_date, total_price, status, client_id, room_id) "
+                + "values (?, ?, ?, ?, ?, ?)", reservations);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void explainGeneratedSearchQuery() {
+        RoomSearchCriteria criteria = new RoomSearchCriteria(Optional.empty(), Optional.empty());
+        criteria.setType(RoomType.DOUBLE);
+        criteria.setMinPrice(100.0);
+        criteria.setMaxPrice(300.0);
+        criteria.setCheckInDate(FIRST_STAY.plusDays(200));
+        criteria.setCheckOutDate(FIRST_STAY.plusDays(203));
+        criteria.setCursor("");
+
+        SqlCapture.STATEMENTS.clear();
+        List<Room> rooms = roomCriteriaRepository.getAllRooms(criteria, PAGE);
+        assertThat(SqlCapture.STATEMENTS).hasSize(1);
+        String sql = SqlCapture.STATEMENTS.get(0);
+
+        String plan = plan(sql);
+        double millis = medianMillis(criteria);
+
+        System.out.printf("Generated search query:%n%s%n%n", sql);
+        System.out.printf("Plan (median %.2f ms through the repository):%n%s%n", millis, plan);
+
+        assertThat(rooms).isNotEmpty();
+        assertThat(plan).contains("Anti Join").contains("idx_reservation_room_dates");
+    }
+
+    private String plan(String sql) {
+        // The criteria values are inlined, only the row limit can still be a parameter
+        Object[] args = sql.contains("?") ? new Object[]{PAGE.getPageSize()} : new Object[0];
+        return jdbcTemplate.queryForList("explain (analyze, buffers) " + sql, String.class, args).stream()
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    private double medianMillis(RoomSearchCriteria criteria) {
+        double[] timings = new double[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            roomCriteriaRepository.getAllRooms(criteria, PAGE);
+            timings[run] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(timings);
+        return timings[RUNS / 2];
+    }
+
+    /**
+     * Records every SQL statement Hibernate prepares, unchanged.
+     */
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.backend.test.benchmark;
+
+import org.example.backend.test.AbstractIntegration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Closed-loop load test of room search and booking, run once per thread mode by its subclasses.
+ * Run with {@code ./gradlew benchmark} and compare the lines printed for both modes.
+ * <p>
+ * Search parameters are randomized so most requests miss the room search cache and reach PostgreSQL.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class ThreadModeLoadTest extends AbstractIntegration {
+
+    private static final int CONCURRENT_CLIENTS = 200;
+    private static final int ROOMS = 500;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final LocalDate FIRST_NIGHT = LocalDate.now().plusDays(1);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private Long clientId;
+
+    @BeforeAll
+    void seed() {
+        // Both thread modes share the database container, so seeding must tolerate an earlier run
+        jdbcTemplate.update("insert into client (first_name, last_name, email, phone, password) "
+                + "select 'Load', 'Test', 'load@example.com', '+1234567890', 'secret' "
+                + "where not exists (select 1 from client where email = 'load@example.com')");
+        clientId = jdbcTemplate.queryForObject("select min(id) from client where email = 'load@example.com'", Long.class);
+        jdbcTemplate.update("delete from reservation where client_id = ?", clientId);
+
+        List<Object[]> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            String roomNumber = String.valueOf(7000 + i);
+            rooms.add(new Object[]{roomNumber, 50 + i % 400, i % 2 == 0 ? "DOUBLE" : "DELUXE", roomNumber});
+        }
+        jdbcTemplate.batchUpdate("insert into room (room_number, base_price, available, type) select ?, ?, true, ? "
+                + "where not exists (select 1 from room where room_number = ?)", rooms);
+    }
+
+    @Test
+    void searchRooms() throws Exception {
+        report("GET /rooms/search", () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(365));
+            return HttpRequest.newBuilder(uri("/rooms/search?type=DOUBLE&minPrice=" + random.nextInt(300)
+                            + "&checkInDate=" + checkIn + "&checkOutDate=" + checkIn.plusDays(3) + "&size=20"))
+                    .GET()
+                    .build();
+        });
+    }
+
+    @Test
+    void createReservations() throws Exception {
+        List<Long> roomIds = jdbcTemplate.queryForList("select id from room where type = 'DELUXE' and room_number like '7%'", Long.class);
+        report("POST /reservations", () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(3 * 365));
+            String body = "{\"clientId\":" + clientId
+                    + ",\"roomId\":" + roomIds.get(random.nextInt(roomIds.size()))
+                    + ",\"checkInDate\":\"" + checkIn + "\",\"checkOutDate\":\"" + checkIn.plusDays(2)
+                    + "\",\"numberOfGuests\":2}";
+            return HttpRequest.newBuilder(uri("/reservations"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        });
+    }
+
+    private void report(String endpoint, Supplier<HttpRequest> requests) throws Exception {
+        drive(requests, WARMUP);
+        Result result = drive(requests, MEASUREMENT);
+
+        System.out.printf("%s threads, %s: %.0f req/s, p50 %.1f ms, p99 %.1f ms, %d rejected (4xx), %d failed%n",
+                virtualThreads ? "virtual" : "platform", endpoint,
+                result.latencies().length / (double) MEASUREMENT.toSeconds(),
+                result.percentile(50), result.percentile(99), result.rejected(), result.failed());
+        assertThat(result.latencies()).isNotEmpty();
+    }
+
+    private Result drive(Supplier<HttpRequest> requests, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Result>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    int rejected = 0;
+                    int failed = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = httpClient.send(requests.get(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (Exception e) {
+                            status = 0;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                        if (status >= 400 && status < 500) {
+                            rejected++;
+                        } else if (status < 200 || status >= 300) {
+                            failed++;
+                        }
+                    }
+                    return new Result(Arrays.copyOf(latencies, count), rejected, failed);
+                }));
+            }
+        }
+
+        long[] all = new long[0];
+        int rejected = 0;
+        int failed = 0;
+        for (Future<Result> client : clients) {
+            Result result = client.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + result.latencies().length);
+            System.arraycopy(result.latencies(), 0, all, offset, result.latencies().length);
+            rejected += result.rejected();
+            failed += result.failed();
+        }
+        Arrays.sort(all);
+        return new Result(all, rejected, failed);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Result(long[] latencies, int rejected, int failed) {
+
+        double percentile(int percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
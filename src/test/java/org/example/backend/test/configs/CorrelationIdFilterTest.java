@@ -0,0 +1,44 @@
+package org.example.backend.test.configs;
+
+import org.example.backend.configs.CorrelationIdFilter;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    void shouldKeepCallerCorrelationIdDuringRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rooms");
+        request.addHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, "checkout-42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seenByChain = new AtomicReference<>();
+
+        filter.doFilter(request, response,
+                (req, res) -> seenByChain.set(MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY)));
+
+        assertThat(seenByChain.get()).isEqualTo("checkout-42");
+        assertThat(response.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER)).isEqualTo("checkout-42");
+        assertThat(MDC.get(CorrelationIdFilter.CORRELATION_ID_MDC_KEY)).isNull();
+    }
+
+    @Test
+    void shouldReplaceMalformedCorrelationId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/rooms");
+        request.addHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, "forged\nline");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> { });
+
+        assertThat(response.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER))
+                .isNotBlank()
+                .doesNotContain("forged");
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.backend.test.configs;
+
+import io.jsonwebtoken.Jwts;
+import org.example.backend.configs.JwtRequestFilter;
+import org.example.backend.configs.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtRequestFilterTest {
+
+    private final JwtRequestFilter filter = new JwtRequestFilter();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldReuseAuthenticationOfRepeatedToken() throws Exception {
+        String token = token("repeat@example.com", new Date(System.currentTimeMillis() + 60_000));
+
+        Authentication first = filter(token).authentication();
+        Authentication second = filter(token).authentication();
+
+        assertThat(first.getName()).isEqualTo("repeat@example.com");
+        assertThat(first.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void shouldRejectTamperedToken() throws Exception {
+        String token = token("tampered@example.com", new Date(System.currentTimeMillis() + 60_000));
+
+        FilterResult result = filter(token.substring(0, token.length() - 2) + "xx");
+
+        assertThat(result.response().getStatus()).isEqualTo(401);
+        assertThat(result.authentication()).isNull();
+    }
+
+    @Test
+    void shouldRejectExpiredToken() throws Exception {
+        String token = token("expired@example.com", new Date(System.currentTimeMillis() - 1_000));
+
+        FilterResult result = filter(token);
+
+        assertThat(result.response().getStatus()).isEqualTo(401);
+    }
+
+    private FilterResult filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservations");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        return new FilterResult(response, SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static String token(String subject, Date expiration) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .setExpiration(expiration)
+                .signWith(JwtTokenProvider.key)
+                .compact();
+    }
+
+    private record FilterResult(MockHttpServletResponse response, Authentication authentication) {
+    }
+}
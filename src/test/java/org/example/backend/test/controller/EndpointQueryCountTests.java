@@ -0,0 +1,184 @@
+package org.example.backend.test.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.backend.test.AbstractIntegration;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements each list and detail endpoint sends, so a mapping that starts loading
+ * associations row by row fails the build. Paged requests ask for full pages, which adds the count query.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryCountTests extends AbstractIntegration {
+
+    private static final LocalDate FIRST_STAY = LocalDate.of(2031, 3, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long clientId;
+    private Long reservationToDelete;
+    private Long paymentToKeep;
+    private Long paymentToDelete;
+    private Long amenityToDelete;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        clientId = jdbcTemplate.queryForObject("insert into client (first_name, last_name, email, phone, password) "
+                + "values ('Query', 'Count', 'query.count@example.com', '+1234567890', 'secret') returning id", Long.class);
+        Long firstRoom = insertRoom("9101");
+        Long secondRoom = insertRoom("9102");
+
+        Long firstReservation = insertReservation(firstRoom, 0);
+        Long secondReservation = insertReservation(secondRoom, 0);
+        insertReservation(firstRoom, 10);
+        reservationToDelete = insertReservation(secondRoom, 10);
+
+        paymentToKeep = insertPayment(firstReservation);
+        paymentToDelete = insertPayment(secondReservation);
+
+        Long sauna = jdbcTemplate.queryForObject("insert into amenity (name, description, additional_cost) "
+                + "values ('Query Count Sauna', 'Private sauna', 40) returning id", Long.class);
+        Long minibar = jdbcTemplate.queryForObject("insert into amenity (name, description, additional_cost) "
+                + "values ('Query Count Minibar', 'Stocked minibar', 15) returning id", Long.class);
+        jdbcTemplate.update("insert into room_amenities (room_id, amenity_id) values (?, ?), (?, ?), (?, ?)",
+                firstRoom, sauna, firstRoom, minibar, secondRoom, minibar);
+
+        amenityToDelete = jdbcTemplate.queryForObject("insert into amenity (name, description, additional_cost) "
+                + "values ('Query Count Bathrobe', 'Bathrobe and slippers', 5) returning id", Long.class);
+        jdbcTemplate.update("insert into room_amenities (room_id, amenity_id) values (?, ?), (?, ?)",
+                firstRoom, amenityToDelete, secondRoom, amenityToDelete);
+    }
+
+    @Test
+    void listingReservationsTakesOneQuery() throws Exception {
+        assertQueries(1, get("/reservations"));
+    }
+
+    @Test
+    void pageOfReservationsTakesSelectAndCount() throws Exception {
+        assertQueries(2, get("/reservations/page").param("size", "2"));
+    }
+
+    @Test
+    void reservationsOfClientTakeClientLookupAndOneQuery() throws Exception {
+        assertQueries(2, get("/reservations/client/{clientId}", clientId));
+    }
+
+    @Test
+    void pageOfReservationsOfClientTakesClientLookupSelectAndCount() throws Exception {
+        assertQueries(3, get("/reservations/client/{clientId}/page", clientId).param("size", "2"));
+    }
+
+    @Test
+    void deletingReservationLoadsItWithItsRoom() throws Exception {
+        // select reservation joined with room, nightly price of the room for the search cache, delete reservation
+        assertQueries(3, delete("/reservations/{id}", reservationToDelete), 204);
+    }
+
+    @Test
+    void roomsWithAmenitiesTakeOneQueryForRoomsAndOneForAmenities() throws Exception {
+        assertQueries(2, get("/rooms/with-amenities").param("size", "2"));
+        assertQueries(2, get("/rooms/with-amenities").param("size", "50"));
+    }
+
+    @Test
+    void deletingAmenityTakesSameStatementsForAnyNumberOfRooms() throws Exception {
+        // select amenity, delete its assignments, delete amenity
+        assertQueries(3, delete("/amenities/private/{id}", amenityToDelete), 204);
+    }
+
+    @Test
+    void listingPaymentsTakesOneQuery() throws Exception {
+        assertQueries(1, get("/payments"));
+    }
+
+    @Test
+    void pageOfPaymentsTakesSelectAndCount() throws Exception {
+        assertQueries(2, get("/payments/page").param("size", "1"));
+    }
+
+    @Test
+    void fetchingPaymentTakesOneQuery() throws Exception {
+        assertQueries(1, get("/payments/{id}", paymentToKeep));
+    }
+
+    @Test
+    void deletingPaymentLoadsItWithItsReservation() throws Exception {
+        // select payment joined with reservation, update reservation status, delete payment
+        assertQueries(3, delete("/payments/{id}", paymentToDelete), 204);
+    }
+
+    @Test
+    void listingClientsTakesOneQuery() throws Exception {
+        assertQueries(1, get("/clients"));
+    }
+
+    @Test
+    void pageOfClientsTakesSelectAndCount() throws Exception {
+        assertQueries(2, get("/clients/page").param("size", "1"));
+    }
+
+    @Test
+    void fetchingClientTakesOneQuery() throws Exception {
+        assertQueries(1, get("/clients/{id}", clientId));
+    }
+
+    private void assertQueries(long expected, RequestBuilder request) throws Exception {
+        assertQueries(expected, request, 200);
+    }
+
+    private void assertQueries(long expected, RequestBuilder request, int expectedStatus) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().is(expectedStatus));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+
+    private Long insertRoom(String roomNumber) {
+        return jdbcTemplate.queryForObject("insert into room (room_number, base_price, available, type) "
+                + "values (?, 100, true, 'DOUBLE') returning id", Long.class, roomNumber);
+    }
+
+    private Long insertReservation(Long roomId, int startOffset) {
+        LocalDate checkIn = FIRST_STAY.plusDays(startOffset);
+        return jdbcTemplate.queryForObject("insert into reservation "
+                        + "(check_in_date, check_out_date, number_of_guests, total_price, status, client_id, room_id) "
+                        + "values (?, ?, 2, 300, 'CONFIRMED', ?, ?) returning id", Long.class,
+                Date.valueOf(checkIn), Date.valueOf(checkIn.plusDays(3)), clientId, roomId);
+    }
+
+    private Long insertPayment(Long reservationId) {
+        return jdbcTemplate.queryForObject("insert into payment (card_number, payment_date, status, amount, client_id, reservation_id) "
+                        + "values ('4111111111111111', ?, 'COMPLETED', 300, ?, ?) returning id", Long.class,
+                Date.valueOf(LocalDate.now()), clientId, reservationId);
+    }
+}
@@ -2,6 +2,7 @@ package org.example.backend.test.controller;
 
 import org.example.backend.controller.payment.PaymentController;
 import org.example.backend.dtos.PaymentDTO;
+import org.example.backend.enums.StreamFormat;
 import org.example.backend.service.payment.PaymentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,8 +10,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 
@@ -63,6 +68,20 @@ class PaymentControllerTest {
         verify(paymentService, times(1)).getAllPayments();
     }
 
+    @Test
+    void streamPayments_ShouldWriteBodyInRequestedFormat() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = paymentController.streamPayments(StreamFormat.JSON);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        verify(paymentService, never()).writeAllPayments(any(StreamFormat.class), any(OutputStream.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        verify(paymentService, times(1)).writeAllPayments(StreamFormat.JSON, out);
+    }
+
     @Test
     void getPaymentById_ShouldReturnPayment() {
         when(paymentService.getPaymentById(1L)).thenReturn(mockPayment);
@@ -0,0 +1,110 @@
+package org.example.backend.test.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.example.backend.test.AbstractIntegration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reads a room with amenities and writes it back unchanged, the way a client editing the room does,
+ * and checks that the cost of the amenities is not added to the base price again.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RoomPriceRoundTripTests extends AbstractIntegration {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long roomWithoutBasePriceInBody;
+    private Long roomWithBasePriceInBody;
+
+    @BeforeAll
+    void seed() {
+        Long balcony = jdbcTemplate.queryForObject("insert into amenity (name, description, additional_cost) "
+                + "values ('Round Trip Balcony', 'Private balcony', 20) returning id", Long.class);
+        roomWithoutBasePriceInBody = insertRoomWithAmenity("9201", balcony);
+        roomWithBasePriceInBody = insertRoomWithAmenity("9202", balcony);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldKeepBasePriceWhenClientSendsOnlyThePriceItRead() throws Exception {
+        for (int save = 0; save < 2; save++) {
+            ObjectNode room = readRoom(roomWithoutBasePriceInBody);
+            // A client that only knows the price
+            room.remove("basePrice");
+            writeRoom(roomWithoutBasePriceInBody, room);
+        }
+
+        assertThat(storedBasePrice(roomWithoutBasePriceInBody)).isEqualByComparingTo("130.00");
+        mockMvc.perform(get("/rooms/{id}", roomWithoutBasePriceInBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(150.00));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldKeepBasePriceWhenClientSendsTheWholeRoomItRead() throws Exception {
+        for (int save = 0; save < 2; save++) {
+            writeRoom(roomWithBasePriceInBody, readRoom(roomWithBasePriceInBody));
+        }
+
+        assertThat(storedBasePrice(roomWithBasePriceInBody)).isEqualByComparingTo("130.00");
+        mockMvc.perform(get("/rooms/{id}", roomWithBasePriceInBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(150.00));
+    }
+
+    private ObjectNode readRoom(Long id) throws Exception {
+        String body = mockMvc.perform(get("/rooms/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(150.00))
+                .andReturn().getResponse().getContentAsString();
+        return (ObjectNode) objectMapper.readTree(body);
+    }
+
+    private void writeRoom(Long id, ObjectNode room) throws Exception {
+        mockMvc.perform(put("/rooms/private/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(room.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(150.00))
+                .andExpect(jsonPath("$.basePrice").value(130.00));
+    }
+
+    private BigDecimal storedBasePrice(Long id) {
+        return jdbcTemplate.queryForObject("select base_price from room where id = ?", BigDecimal.class, id);
+    }
+
+    private Long insertRoomWithAmenity(String roomNumber, Long amenityId) {
+        Long roomId = jdbcTemplate.queryForObject("insert into room (room_number, base_price, available, type) "
+                + "values (?, 130, true, 'DOUBLE') returning id", Long.class, roomNumber);
+        jdbcTemplate.update("insert into room_amenities (room_id, amenity_id) values (?, ?)", roomId, amenityId);
+        return roomId;
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.backend.test.controller;
+
+import org.example.backend.controller.room.RoomController;
+import org.example.backend.test.AbstractIntegration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Searches rooms whose price is made of a base price and amenity costs, checking that the price
+ * filters and keyset pages use the whole price and not only the base price the index is on.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RoomSearchPriceTests extends AbstractIntegration {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        Long butler = jdbcTemplate.queryForObject("insert into amenity (name, description, additional_cost) "
+                + "values ('Search Price Butler', 'Butler service', 60.25) returning id", Long.class);
+        Long withButler = insertRoom("9301", "1000.00");
+        jdbcTemplate.update("insert into room_amenities (room_id, amenity_id) values (?, ?)", withButler, butler);
+        insertRoom("9302", "1050.00");
+        insertRoom("9303", "1070.00");
+
+        Long towels = jdbcTemplate.queryForObject("insert into amenity (name, description, additional_cost) "
+                + "values ('Search Price Towels', 'Extra towels', 0.01) returning id", Long.class);
+        Long withTowels = insertRoom("9304", "100.01");
+        jdbcTemplate.update("insert into room_amenities (room_id, amenity_id) values (?, ?)", withTowels, towels);
+    }
+
+    @Test
+    void shouldFilterOnBasePricePlusAmenityCost() throws Exception {
+        mockMvc.perform(get("/rooms/search")
+                        .param("type", "DELUXE")
+                        .param("minPrice", "1055")
+                        .param("maxPrice", "1065"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].roomNumber", contains("9301")))
+                .andExpect(jsonPath("$[0].price").value(1060.25));
+
+        // The base price of 9301 is below the maximum, its price is not
+        mockMvc.perform(get("/rooms/search")
+                        .param("type", "DELUXE")
+                        .param("minPrice", "1040")
+                        .param("maxPrice", "1055"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].roomNumber", contains("9302")));
+    }
+
+    @Test
+    void shouldKeepRoomPricedExactlyOnTheBounds() throws Exception {
+        // 100.01 + 0.01 is 100.02000000000001 in floating point, just above the bound
+        mockMvc.perform(get("/rooms/search")
+                        .param("type", "DELUXE")
+                        .param("minPrice", "100.02")
+                        .param("maxPrice", "100.02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].roomNumber", contains("9304")))
+                .andExpect(jsonPath("$[0].price").value(100.02));
+    }
+
+    @Test
+    void shouldPageByPriceDescendingWithKeyset() throws Exception {
+        String cursor = "";
+        for (String roomNumber : new String[]{"9303", "9301", "9302"}) {
+            MvcResult page = mockMvc.perform(get("/rooms/search")
+                            .param("type", "DELUXE")
+                            .param("minPrice", "1040")
+                            .param("maxPrice", "1080")
+                            .param("sortDirection", "desc")
+                            .param("cursor", cursor)
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].roomNumber", contains(roomNumber)))
+                    .andReturn();
+            cursor = page.getResponse().getHeader(RoomController.NEXT_CURSOR_HEADER);
+        }
+    }
+
+    private Long insertRoom(String roomNumber, String basePrice) {
+        return jdbcTemplate.queryForObject("insert into room (room_number, base_price, available, type) "
+                + "values (?, ?::numeric, true, 'DELUXE') returning id", Long.class, roomNumber, basePrice);
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.backend.test.criteria;
+
+import org.example.backend.criteria.RoomSearchCursor;
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class RoomSearchCursorTest {
+
+    @Test
+    void shouldDecodeEncodedCursor() {
+        RoomSearchCursor cursor = new RoomSearchCursor(149.99, 42L);
+
+        assertThat(RoomSearchCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        Throwable thrown = catchThrowable(() -> RoomSearchCursor.decode("not a cursor"));
+
+        assertThat(thrown).isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessage("Invalid search cursor: not a cursor");
+    }
+}
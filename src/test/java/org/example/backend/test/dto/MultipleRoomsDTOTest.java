@@ -0,0 +1,42 @@
+package org.example.backend.test.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.example.backend.dtos.MultipleRoomsDTO;
+import org.example.backend.enums.RoomType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultipleRoomsDTOTest {
+
+    private final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+    private final Validator validator = factory.getValidator();
+
+    @Test
+    void shouldValidateLargestBlock() {
+        Set<ConstraintViolation<MultipleRoomsDTO>> violations = validator.validate(block(MultipleRoomsDTO.MAX_ROOMS));
+
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void shouldFailWhenBlockIsTooLarge() {
+        Set<ConstraintViolation<MultipleRoomsDTO>> violations = validator.validate(block(MultipleRoomsDTO.MAX_ROOMS + 1));
+
+        assertThat(violations).anyMatch(violation -> violation.getMessage().equals("At most 1000 rooms can be created at once"));
+    }
+
+    private static MultipleRoomsDTO block(int numberOfRooms) {
+        MultipleRoomsDTO block = new MultipleRoomsDTO();
+        block.setStartRoomNumber("1000");
+        block.setNumberOfRooms(numberOfRooms);
+        block.setPrice(150.00);
+        block.setType(RoomType.SINGLE);
+        return block;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.backend.test.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.dtos.ClientDTO;
+import org.example.backend.enums.StreamFormat;
+import org.example.backend.service.JsonStreamWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonStreamWriterTest {
+
+    private final JsonStreamWriter writer = new JsonStreamWriter(new ObjectMapper());
+
+    @Test
+    void shouldWriteOneLinePerElementAsNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = writer.write(Stream.of(client(1L, "John"), client(2L, "Jane")), StreamFormat.NDJSON, out);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8).split("\n"))
+                .hasSize(2)
+                .satisfiesExactly(
+                        line -> assertThat(line).startsWith("{\"id\":1,\"firstName\":\"John\""),
+                        line -> assertThat(line).startsWith("{\"id\":2,\"firstName\":\"Jane\""));
+    }
+
+    @Test
+    void shouldWriteJsonArray() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = writer.write(Stream.of(client(1L, "John"), client(2L, "Jane")), StreamFormat.JSON, out);
+
+        assertThat(count).isEqualTo(2);
+        ClientDTO[] clients = new ObjectMapper().readValue(out.toByteArray(), ClientDTO[].class);
+        assertThat(clients).extracting(ClientDTO::getFirstName).containsExactly("John", "Jane");
+    }
+
+    @Test
+    void shouldWriteEmptyArrayForNoElements() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = writer.write(Stream.empty(), StreamFormat.JSON, out);
+
+        assertThat(count).isZero();
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    private static ClientDTO client(Long id, String firstName) {
+        return ClientDTO.builder().id(id).firstName(firstName).lastName("Doe").email(firstName + "@example.com").build();
+    }
+}
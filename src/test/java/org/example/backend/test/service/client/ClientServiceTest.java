@@ -2,6 +2,7 @@ package org.example.backend.test.service.client;
 
 import org.example.backend.dtos.ClientDTO;
 import org.example.backend.exception.exceptions.ClientEmailAlreadyExistsException;
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
 import org.example.backend.exception.exceptions.NoSuchClientException;
 import org.example.backend.mappers.ClientMapper;
 import org.example.backend.model.Client;
@@ -13,6 +14,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -137,7 +141,7 @@ class ClientServiceTest {
         updatedClient.setPhone(clientDTO.getPhone());
 
         given(clientRepository.findById(clientId)).willReturn(Optional.of(existingClient));
-        given(clientRepository.existsByEmail(clientDTO.getEmail())).willReturn(false);
+        given(clientRepository.existsByEmailAndIdNot(clientDTO.getEmail(), clientId)).willReturn(false);
         given(clientRepository.save(existingClient)).willReturn(updatedClient);
         given(clientMapper.toClientDto(updatedClient)).willReturn(clientDTO);
 
@@ -161,7 +165,7 @@ class ClientServiceTest {
         existingClient.setEmail("john.doe@example.com");
 
         given(clientRepository.findById(clientId)).willReturn(Optional.of(existingClient));
-        given(clientRepository.existsByEmail(clientDTO.getEmail())).willReturn(true);
+        given(clientRepository.existsByEmailAndIdNot(clientDTO.getEmail(), clientId)).willReturn(true);
 
         // when
         Throwable thrown = catchThrowable(() -> clientService.updateClient(clientId, clientDTO));
@@ -191,16 +195,6 @@ class ClientServiceTest {
     @Test
     void shouldReturnAllClientsDTO() {
         // given
-        Client client1 = new Client();
-        client1.setFirstName("John");
-        client1.setLastName("Doe");
-        client1.setEmail("john.doe@example.com");
-
-        Client client2 = new Client();
-        client2.setFirstName("Jane");
-        client2.setLastName("Doe");
-        client2.setEmail("jane.doe@example.com");
-
         ClientDTO clientDTO1 = new ClientDTO();
         clientDTO1.setFirstName("John");
         clientDTO1.setLastName("Doe");
@@ -211,11 +205,9 @@ class ClientServiceTest {
         clientDTO2.setLastName("Doe");
         clientDTO2.setEmail("jane.doe@example.com");
 
-        List<Client> clients = List.of(client1, client2);
         List<ClientDTO> clientDTOs = List.of(clientDTO1, clientDTO2);
 
-        given(clientRepository.findAll()).willReturn(clients);
-        given(clientMapper.toClientDTOList(clients)).willReturn(clientDTOs);
+        given(clientRepository.findAllClientDTOs()).willReturn(clientDTOs);
 
         // when
         List<ClientDTO> result = clientService.getAllClientsDTO();
@@ -271,4 +263,20 @@ class ClientServiceTest {
         then(clientMapper).shouldHaveNoInteractions();
     }
 
+    @Test
+    void shouldRejectSortingClientsByPassword() {
+        // given
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("password"));
+
+        // when
+        Throwable thrown = catchThrowable(() -> clientService.getClientsPage(pageable));
+
+        // then
+        assertThat(thrown)
+                .isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessage("The results can only be sorted by email, firstName, id, lastName.");
+
+        then(clientRepository).shouldHaveNoInteractions();
+    }
+
 }
@@ -1,6 +1,10 @@
 package org.example.backend.test.service.payment;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.criteria.PaymentSearchCriteria;
 import org.example.backend.dtos.PaymentDTO;
+import org.example.backend.enums.StreamFormat;
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
 import org.example.backend.exception.exceptions.NoSuchPaymentException;
 import org.example.backend.mappers.PaymentMapper;
 import org.example.backend.model.Client;
@@ -9,20 +13,33 @@ import org.example.backend.model.Reservation;
 import org.example.backend.repository.client.ClientRepository;
 import org.example.backend.repository.reservation.ReservationRepository;
 import org.example.backend.repository.PaymentRepository;
+import org.example.backend.service.JsonStreamWriter;
 import org.example.backend.service.payment.PaymentService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.catchThrowable;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 
@@ -41,6 +58,9 @@ class PaymentServiceTest {
     @Mock
     private PaymentMapper paymentMapper;
 
+    @Spy
+    private JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(new ObjectMapper().findAndRegisterModules());
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -156,18 +176,18 @@ class PaymentServiceTest {
     @Test
     void shouldDeletePayment() {
         Long paymentId = 1L;
-        given(paymentRepository.findById(paymentId)).willReturn(Optional.of(payment));
-        given(reservationRepository.findById(payment.getReservationId().getId())).willReturn(Optional.of(reservation));  // Используем reservationId напрямую
+        given(paymentRepository.findWithReservationById(paymentId)).willReturn(Optional.of(payment));
 
         paymentService.deletePayment(paymentId);
 
         then(paymentRepository).should().delete(payment);
+        assertThat(reservation.getStatus()).isEqualTo("UNCONFIRMED");
     }
 
     @Test
     void shouldThrowExceptionWhenPaymentNotFoundForDelete() {
         Long paymentId = 1L;
-        given(paymentRepository.findById(paymentId)).willReturn(Optional.empty());
+        given(paymentRepository.findWithReservationById(paymentId)).willReturn(Optional.empty());
 
         Throwable thrown = catchThrowable(() -> paymentService.deletePayment(paymentId));
 
@@ -178,13 +198,50 @@ class PaymentServiceTest {
 
     @Test
     void shouldReturnAllPayments() {
-        List<Payment> payments = List.of(payment);
         List<PaymentDTO> paymentDTOs = List.of(paymentDTO);
-        given(paymentRepository.findAll()).willReturn(payments);
-        given(paymentMapper.toPaymentDTOList(payments)).willReturn(paymentDTOs);
+        given(paymentRepository.findAllPaymentDTOs()).willReturn(paymentDTOs);
 
         List<PaymentDTO> result = paymentService.getAllPayments();
 
         assertThat(result).isEqualTo(paymentDTOs);
     }
+
+    @Test
+    void shouldStreamAllPaymentsAndCloseTheResultStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        given(paymentRepository.streamAllPaymentDTOs()).willReturn(Stream.of(paymentDTO).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        paymentService.writeAllPayments(StreamFormat.NDJSON, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\"cardNumber\":\"5555555555555555\"");
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    void shouldSearchPaymentsPage() {
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setStatus("CONFIRMED");
+        criteria.setFrom(LocalDate.now().minusDays(7));
+        Pageable pageable = PageRequest.of(0, 20);
+        given(paymentRepository.findAll(ArgumentMatchers.<Specification<Payment>>any(), eq(pageable)))
+                .willReturn(new PageImpl<>(List.of(payment), pageable, 1));
+        given(paymentMapper.toPaymentDTO(payment)).willReturn(paymentDTO);
+
+        Page<PaymentDTO> page = paymentService.searchPayments(criteria, pageable);
+
+        assertThat(page.getContent()).isEqualTo(List.of(paymentDTO));
+        assertThat(page.getTotalElements()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldRejectReversedDateRangeWhenSearchingPayments() {
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setFrom(LocalDate.of(2024, 12, 31));
+        criteria.setTo(LocalDate.of(2024, 12, 1));
+
+        Throwable thrown = catchThrowable(() -> paymentService.searchPayments(criteria, PageRequest.of(0, 20)));
+
+        assertThat(thrown).isInstanceOf(InvalidRequestParameterException.class);
+    }
 }
@@ -0,0 +1,160 @@
+package org.example.backend.test.service.reservation;
+
+import org.example.backend.dtos.ReservationDTO;
+import org.example.backend.enums.RoomType;
+import org.example.backend.exception.exceptions.RoomAlreadyBookedException;
+import org.example.backend.mappers.ReservationMapper;
+import org.example.backend.model.Client;
+import org.example.backend.model.Reservation;
+import org.example.backend.model.Room;
+import org.example.backend.repository.client.ClientRepository;
+import org.example.backend.repository.reservation.ReservationRepository;
+import org.example.backend.repository.room.RoomRepository;
+import org.example.backend.service.reservation.ReservationService;
+import org.example.backend.service.reservation.RoomAvailabilityIndex;
+import org.example.backend.service.reservation.RoomBookingLocks;
+import org.example.backend.service.room.RoomPricingService;
+import org.example.backend.service.room.RoomSearchCacheInvalidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Fires many concurrent bookings for a few rooms through the real lock and availability index
+ * and checks that no two saved reservations of a room overlap.
+ */
+class ReservationConcurrencyTests {
+
+    private static final int THREADS = 16;
+    private static final int BOOKINGS_PER_THREAD = 200;
+    private static final LocalDate SEASON_START = LocalDate.of(2027, 6, 1);
+
+    private final Queue<Reservation> savedReservations = new ConcurrentLinkedQueue<>();
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        ReservationMapper reservationMapper = mock(ReservationMapper.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        ClientRepository clientRepository = mock(ClientRepository.class);
+
+        Client client = new Client();
+        client.setId(1L);
+        given(clientRepository.findById(anyLong())).willReturn(Optional.of(client));
+
+        for (long roomId = 1; roomId <= 3; roomId++) {
+            Room room = new Room();
+            room.setId(roomId);
+            room.setBasePrice(new BigDecimal("100.00"));
+            room.setPrice(100.0);
+            room.setType(RoomType.DELUXE);
+            given(roomRepository.findForBookingById(roomId)).willReturn(Optional.of(room));
+            given(roomRepository.findNightlyPrice(roomId)).willReturn(Optional.of(room.getBasePrice()));
+        }
+
+        given(reservationMapper.toReservation(any(ReservationDTO.class))).willAnswer(invocation -> {
+            ReservationDTO dto = invocation.getArgument(0);
+            Reservation reservation = new Reservation();
+            reservation.setCheckInDate(dto.getCheckInDate());
+            reservation.setCheckOutDate(dto.getCheckOutDate());
+            reservation.setNumberOfGuests(dto.getNumberOfGuests());
+            return reservation;
+        });
+        given(reservationMapper.toReservationDto(any(Reservation.class))).willReturn(new ReservationDTO());
+
+        AtomicLong ids = new AtomicLong();
+        given(reservationRepository.saveAndFlush(any(Reservation.class))).willAnswer(invocation -> {
+            Reservation reservation = invocation.getArgument(0);
+            // Widen the window between the availability check and the index update.
+            Thread.yield();
+            reservation.setId(ids.incrementAndGet());
+            savedReservations.add(reservation);
+            return reservation;
+        });
+
+        RoomAvailabilityIndex availabilityIndex = new RoomAvailabilityIndex(reservationRepository);
+        reservationService = new ReservationService(reservationRepository, reservationMapper, roomRepository,
+                clientRepository, availabilityIndex, new RoomBookingLocks(8), mock(RoomSearchCacheInvalidator.class), null,
+                new RoomPricingService(roomRepository, mock(CacheManager.class)), TransactionOperations.withoutTransaction());
+    }
+
+    @Test
+    void shouldNeverSaveOverlappingReservationsUnderConcurrentLoad() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    LocalDate checkIn = SEASON_START.plusDays(random.nextInt(60));
+                    ReservationDTO request = new ReservationDTO();
+                    request.setClientId(1L);
+                    request.setRoomId(1L + random.nextInt(3));
+                    request.setCheckInDate(checkIn);
+                    request.setCheckOutDate(checkIn.plusDays(1L + random.nextInt(4)));
+                    request.setNumberOfGuests(2L);
+                    try {
+                        reservationService.createReservation(request);
+                    } catch (RoomAlreadyBookedException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(savedReservations.size() + rejected.get()).isEqualTo(THREADS * BOOKINGS_PER_THREAD);
+        assertThat(rejected.get()).isPositive();
+
+        Map<Long, List<Reservation>> byRoom = savedReservations.stream()
+                .collect(Collectors.groupingBy(reservation -> reservation.getRoomId().getId()));
+        assertThat(byRoom).hasSize(3);
+        byRoom.values().forEach(reservations -> {
+            for (int i = 0; i < reservations.size(); i++) {
+                for (int j = i + 1; j < reservations.size(); j++) {
+                    Reservation a = reservations.get(i);
+                    Reservation b = reservations.get(j);
+                    boolean overlaps = a.getCheckInDate().isBefore(b.getCheckOutDate())
+                            && b.getCheckInDate().isBefore(a.getCheckOutDate());
+                    assertThat(overlaps)
+                            .as("reservations %d and %d of room %d overlap", a.getId(), b.getId(), a.getRoomId().getId())
+                            .isFalse();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,228 @@
+package org.example.backend.test.service.reservation;
+
+import org.example.backend.dtos.DateRangeDTO;
+import org.example.backend.dtos.ReservationDTO;
+import org.example.backend.exception.exceptions.RoomAlreadyBookedException;
+import org.example.backend.mappers.ReservationMapper;
+import org.example.backend.repository.client.ClientRepository;
+import org.example.backend.repository.reservation.ReservationRepository;
+import org.example.backend.repository.room.RoomRepository;
+import org.example.backend.service.reservation.ReservationService;
+import org.example.backend.service.reservation.RoomAvailabilityIndex;
+import org.example.backend.service.reservation.RoomBookingLocks;
+import org.example.backend.service.room.RoomPricingService;
+import org.example.backend.service.room.RoomSearchCacheInvalidator;
+import org.example.backend.test.AbstractIntegration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Books rooms concurrently through two service instances against PostgreSQL. Each instance has its own
+ * booking locks and availability index, like two application instances, so only the room version and the
+ * ex_reservation_room_stay exclusion constraint stand between them and overlapping reservations.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationDatabaseConcurrencyTests extends AbstractIntegration {
+
+    private static final int THREADS = 8;
+    private static final int BOOKINGS_PER_THREAD = 25;
+    private static final LocalDate SEASON_START = LocalDate.of(2032, 6, 1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private RoomSearchCacheInvalidator searchCacheInvalidator;
+
+    @Autowired
+    private RoomPricingService roomPricingService;
+
+    private TransactionTemplate transactionTemplate;
+    private Long clientId;
+
+    @BeforeAll
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        clientId = jdbcTemplate.queryForObject("insert into client (first_name, last_name, email, phone, password) "
+                + "values ('Two', 'Instances', 'two.instances@example.com', '+1234567890', 'secret') returning id", Long.class);
+    }
+
+    @Test
+    void shouldNeverStoreOverlappingReservationsBookedThroughTwoInstances() throws Exception {
+        List<Long> roomIds = List.of(insertRoom("9401"), insertRoom("9402"));
+        List<ReservationService> instances = List.of(newInstance(), newInstance());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            ReservationService instance = instances.get(t % instances.size());
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    LocalDate checkIn = SEASON_START.plusDays(random.nextInt(40));
+                    ReservationDTO request = request(roomIds.get(random.nextInt(roomIds.size())),
+                            checkIn, checkIn.plusDays(1L + random.nextInt(4)));
+                    try {
+                        instance.createReservation(request);
+                        booked.incrementAndGet();
+                    } catch (RoomAlreadyBookedException | ConcurrencyFailureException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertThat(booked.get() + rejected.get()).isEqualTo(THREADS * BOOKINGS_PER_THREAD);
+        assertThat(booked.get()).isPositive();
+        assertThat(rejected.get()).isPositive();
+        assertThat(countReservations(roomIds)).isEqualTo(booked.get());
+        assertThat(countOverlappingReservations(roomIds)).isZero();
+    }
+
+    @Test
+    void shouldFailBookingWhenAnotherInstanceBookedTheRoomBeforeItCommitted() throws Exception {
+        Long roomId = insertRoom("9403");
+        ReservationService first = newInstance();
+        ReservationService second = newInstance();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // The stays do not overlap, only the room version tells the two bookings apart
+        Throwable thrown = catchThrowable(() -> transactionTemplate.execute(status -> {
+            first.createReservation(request(roomId, SEASON_START, SEASON_START.plusDays(2)));
+            try {
+                executor.submit(() -> transactionTemplate.execute(other ->
+                        second.createReservation(request(roomId, SEASON_START.plusDays(5), SEASON_START.plusDays(7)))))
+                        .get();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return null;
+        }));
+        executor.shutdown();
+
+        assertThat(thrown).isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(jdbcTemplate.queryForList("select check_in_date from reservation where room_id = ?",
+                LocalDate.class, roomId)).containsExactly(SEASON_START.plusDays(5));
+    }
+
+    @Test
+    void shouldListRangesBookedThroughAnotherInstance() {
+        Long roomId = insertRoom("9405");
+        ReservationService first = newInstance();
+        ReservationService second = newInstance();
+
+        first.createReservation(request(roomId, SEASON_START, SEASON_START.plusDays(3)));
+
+        assertThat(second.getUnavailableRangesForRoom(roomId, null, null))
+                .containsExactly(new DateRangeDTO(SEASON_START, SEASON_START.plusDays(3)));
+        assertThat(second.getUnavailableDatesForRoom(roomId))
+                .containsExactly(SEASON_START, SEASON_START.plusDays(1), SEASON_START.plusDays(2));
+    }
+
+    @Test
+    void shouldRejectOverlappingRowWrittenStraightToDatabase() {
+        Long roomId = insertRoom("9404");
+        insertReservation(roomId, SEASON_START, SEASON_START.plusDays(3));
+
+        Throwable thrown = catchThrowable(() -> insertReservation(roomId, SEASON_START.plusDays(2), SEASON_START.plusDays(4)));
+
+        assertThat(thrown).isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("ex_reservation_room_stay");
+        // Back-to-back stays share no night
+        insertReservation(roomId, SEASON_START.plusDays(3), SEASON_START.plusDays(5));
+        assertThat(countOverlappingReservations(List.of(roomId))).isZero();
+    }
+
+    private ReservationService newInstance() {
+        RoomAvailabilityIndex availabilityIndex = new RoomAvailabilityIndex(reservationRepository);
+        availabilityIndex.load();
+        return new ReservationService(reservationRepository, reservationMapper, roomRepository, clientRepository,
+                availabilityIndex, new RoomBookingLocks(64), searchCacheInvalidator, null, roomPricingService,
+                transactionTemplate);
+    }
+
+    private ReservationDTO request(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        ReservationDTO request = new ReservationDTO();
+        request.setClientId(clientId);
+        request.setRoomId(roomId);
+        request.setCheckInDate(checkIn);
+        request.setCheckOutDate(checkOut);
+        request.setNumberOfGuests(2L);
+        return request;
+    }
+
+    // Rooms start unavailable, so a booking changes the room row only through its version
+    private Long insertRoom(String roomNumber) {
+        return jdbcTemplate.queryForObject("insert into room (room_number, base_price, available, type) "
+                + "values (?, 100, false, 'DOUBLE') returning id", Long.class, roomNumber);
+    }
+
+    private void insertReservation(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        jdbcTemplate.update("insert into reservation (check_in_date, check_out_date, number_of_guests, total_price, "
+                        + "status, client_id, room_id) values (?, ?, 2, 200, 'CONFIRMED', ?, ?)",
+                Date.valueOf(checkIn), Date.valueOf(checkOut), clientId, roomId);
+    }
+
+    private int countReservations(List<Long> roomIds) {
+        return jdbcTemplate.queryForObject("select count(*) from reservation where room_id = any (?)",
+                Integer.class, (Object) roomIds.toArray(new Long[0]));
+    }
+
+    private int countOverlappingReservations(List<Long> roomIds) {
+        return jdbcTemplate.queryForObject("select count(*) from reservation a join reservation b "
+                        + "on a.room_id = b.room_id and a.id < b.id "
+                        + "and a.check_in_date < b.check_out_date and b.check_in_date < a.check_out_date "
+                        + "where a.room_id = any (?)",
+                Integer.class, (Object) roomIds.toArray(new Long[0]));
+    }
+}
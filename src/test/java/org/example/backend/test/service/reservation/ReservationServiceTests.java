@@ -1,18 +1,30 @@
 package org.example.backend.test.service.reservation;
 
 import org.example.backend.BaseTestsSetup;
+import org.example.backend.criteria.ReservationSearchCriteria;
+import org.example.backend.dtos.DateRangeDTO;
 import org.example.backend.dtos.ReservationDTO;
 import org.example.backend.enums.RoomType;
 import org.example.backend.exception.exceptions.InvalidNumberOfGuestsException;
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
 import org.example.backend.exception.exceptions.NoSuchReservationException;
 import org.example.backend.exception.exceptions.NoSuchRoomException;
 import org.example.backend.exception.exceptions.RoomAlreadyBookedException;
 import org.example.backend.model.Reservation;
 import org.example.backend.model.Room;
+import org.example.backend.repository.reservation.ReservationStay;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
@@ -22,9 +34,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,32 +48,42 @@ public class ReservationServiceTests extends BaseTestsSetup {
     void shouldCreateReservationSuccessfully() {
         given(reservationMapper.toReservation(any(ReservationDTO.class))).willReturn(reservation);
         given(clientRepository.findById(1L)).willReturn(Optional.of(client));
-        given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+        given(roomPricingService.getNightlyPrice(1L)).willReturn(new BigDecimal("150.00"));
+        given(roomRepository.findForBookingById(1L)).willReturn(Optional.of(room));
 
-        given(reservationRepository.save(reservation)).willReturn(reservation);
+        given(reservationRepository.saveAndFlush(reservation)).willReturn(reservation);
         given(reservationMapper.toReservationDto(reservation)).willReturn(reservationDTO);
 
         ReservationDTO createdReservation = reservationService.createReservation(reservationDTO);
 
         assertNotNull(createdReservation);
+        assertThat(reservation.getTotalPrice()).isEqualTo(900.00);
         assertEquals(1L, createdReservation.getClientId());
         assertEquals(1L, createdReservation.getRoomId());
-        then(reservationRepository).should().save(reservation);
+        then(reservationRepository).should().saveAndFlush(reservation);
+        then(roomAvailabilityIndex).should().put(reservation);
     }
 
     @Test
-    void testRoomAlreadyBookedForGivenDateRange() {
-        given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+    void shouldRejectUpdateOverlappingAnotherReservation() {
+        given(reservationRepository.findWithRoomById(1L)).willReturn(Optional.of(reservation));
+        given(clientRepository.findById(1L)).willReturn(Optional.of(client));
+        given(roomRepository.findForBookingById(1L)).willReturn(Optional.of(room));
+        given(roomAvailabilityIndex.isBooked(1L, reservationDTO.getCheckInDate(), reservationDTO.getCheckOutDate(), 1L))
+                .willReturn(true);
+
+        Throwable thrown = catchThrowable(() -> reservationService.updateReservation(1L, reservationDTO));
 
-        Reservation existingReservation = new Reservation();
-        existingReservation.setCheckInDate(LocalDate.of(2025, 1, 5));
-        existingReservation.setCheckOutDate(LocalDate.of(2025, 1, 12));
-        existingReservation.setRoomId(room);
+        assertThat(thrown).isInstanceOf(RoomAlreadyBookedException.class);
+        then(reservationRepository).should(never()).saveAndFlush(any(Reservation.class));
+    }
 
+    @Test
+    void testRoomAlreadyBookedForGivenDateRange() {
         LocalDate checkInDate = LocalDate.of(2025, 1, 10);
         LocalDate checkOutDate = LocalDate.of(2025, 1, 15);
 
-        when(reservationRepository.findByRoomId(room)).thenReturn(List.of(existingReservation));
+        when(roomAvailabilityIndex.isBooked(room.getId(), checkInDate, checkOutDate, null)).thenReturn(true);
         Long roomId = room.getId();
 
         RoomAlreadyBookedException exception = assertThrows(RoomAlreadyBookedException.class, () -> {
@@ -68,6 +92,18 @@ public class ReservationServiceTests extends BaseTestsSetup {
         assertEquals("The room is already booked for the selected dates.", exception.getMessage());
     }
 
+    @Test
+    void shouldRejectStayOverlappingReservationUnknownToIndex() {
+        LocalDate checkInDate = LocalDate.of(2025, 1, 10);
+        LocalDate checkOutDate = LocalDate.of(2025, 1, 15);
+        given(reservationRepository.existsOverlapping(1L, checkInDate, checkOutDate, null)).willReturn(true);
+
+        Throwable thrown = catchThrowable(() -> reservationService.validateRoomAvailability(1L, checkInDate, checkOutDate));
+
+        assertThat(thrown).isInstanceOf(RoomAlreadyBookedException.class)
+                .hasMessage("The room is already booked for the selected dates.");
+    }
+
     @Test
     void shouldThrowExceptionWhenRoomNotFound() {
         given(roomRepository.findById(1L)).willReturn(java.util.Optional.empty());
@@ -78,11 +114,22 @@ public class ReservationServiceTests extends BaseTestsSetup {
                 .hasMessage("Room not found!");
     }
 
+    @Test
+    void shouldRejectBookingWithoutRoomBeforeLockingIt() {
+        reservationDTO.setRoomId(null);
+
+        Throwable thrown = catchThrowable(() -> reservationService.createReservation(reservationDTO));
+
+        assertThat(thrown).isInstanceOf(NoSuchRoomException.class)
+                .hasMessage("Room not found!");
+        then(roomBookingLocks).should(never()).withRoomLock(any(), any());
+    }
+
     @Test
     void shouldThrowExceptionWhenInvalidNumberOfGuests() {
         reservationDTO.setNumberOfGuests(3L);
         given(clientRepository.findById(1L)).willReturn(java.util.Optional.of(client));
-        given(roomRepository.findById(1L)).willReturn(java.util.Optional.of(room));
+        given(roomRepository.findForBookingById(1L)).willReturn(java.util.Optional.of(room));
 
         Throwable thrown = catchThrowable(() -> reservationService.createReservation(reservationDTO));
 
@@ -92,7 +139,7 @@ public class ReservationServiceTests extends BaseTestsSetup {
 
     @Test
     void shouldFetchReservationByIdSuccessfully() {
-        given(reservationRepository.findById(1L)).willReturn(java.util.Optional.of(reservation));
+        given(reservationRepository.findWithRoomById(1L)).willReturn(java.util.Optional.of(reservation));
         given(reservationMapper.toReservationDto(reservation)).willReturn(reservationDTO);
 
         ReservationDTO fetchedReservation = reservationService.getReservation(1L);
@@ -104,7 +151,7 @@ public class ReservationServiceTests extends BaseTestsSetup {
 
     @Test
     void shouldThrowExceptionWhenReservationNotFound() {
-        given(reservationRepository.findById(1L)).willReturn(java.util.Optional.empty());
+        given(reservationRepository.findWithRoomById(1L)).willReturn(java.util.Optional.empty());
 
         Throwable thrown = catchThrowable(() -> reservationService.getReservation(1L));
 
@@ -116,10 +163,11 @@ public class ReservationServiceTests extends BaseTestsSetup {
     void shouldUpdateReservationSuccessfully() {
         reservationDTO.setCheckInDate(LocalDate.of(2026, 12, 5));
         reservationDTO.setCheckOutDate(LocalDate.of(2026, 12, 10));
-        given(reservationRepository.findById(1L)).willReturn(java.util.Optional.of(reservation));
+        given(reservationRepository.findWithRoomById(1L)).willReturn(java.util.Optional.of(reservation));
         given(clientRepository.findById(1L)).willReturn(java.util.Optional.of(client));
-        given(roomRepository.findById(1L)).willReturn(java.util.Optional.of(room));
-        given(reservationRepository.save(reservation)).willReturn(reservation);
+        given(roomPricingService.getNightlyPrice(1L)).willReturn(new BigDecimal("150.10"));
+        given(roomRepository.findForBookingById(1L)).willReturn(Optional.of(room));
+        given(reservationRepository.saveAndFlush(reservation)).willReturn(reservation);
         given(reservationMapper.toReservationDto(reservation)).willReturn(reservationDTO);
 
         ReservationDTO updatedReservation = reservationService.updateReservation(1L, reservationDTO);
@@ -127,6 +175,7 @@ public class ReservationServiceTests extends BaseTestsSetup {
         assertThat(updatedReservation).isNotNull();
         assertThat(updatedReservation.getCheckInDate()).isEqualTo(LocalDate.of(2026, 12, 5));
         assertThat(updatedReservation.getCheckOutDate()).isEqualTo(LocalDate.of(2026, 12, 10));
+        assertThat(reservation.getTotalPrice()).isEqualTo(750.50);
     }
 
     @Test
@@ -138,9 +187,10 @@ public class ReservationServiceTests extends BaseTestsSetup {
         reservation.setId(1L);
         reservation.setRoomId(room);
 
-        given(reservationRepository.findById(1L)).willReturn(Optional.of(reservation));
+        given(reservationRepository.findWithRoomById(1L)).willReturn(Optional.of(reservation));
 
         given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+        given(roomPricingService.getNightlyPrice(1L)).willReturn(new BigDecimal("150.00"));
 
         ReservationDTO reservationDTO = new ReservationDTO();
         reservationDTO.setRoomId(1L);
@@ -153,8 +203,7 @@ public class ReservationServiceTests extends BaseTestsSetup {
 
     @Test
     void shouldFetchAllReservationsSuccessfully() {
-        given(reservationRepository.findAll()).willReturn(List.of(reservation));
-        given(reservationMapper.toReservationDTOList(List.of(reservation))).willReturn(List.of(reservationDTO));
+        given(reservationRepository.findAllReservationDTOs()).willReturn(List.of(reservationDTO));
 
         List<ReservationDTO> reservations = reservationService.getAllReservations();
 
@@ -162,6 +211,46 @@ public class ReservationServiceTests extends BaseTestsSetup {
         assertThat(reservations.get(0).getId()).isEqualTo(1L);
     }
 
+    @Test
+    void shouldSearchReservationsPage() {
+        ReservationSearchCriteria criteria = new ReservationSearchCriteria();
+        criteria.setRoomId(1L);
+        criteria.setFrom(LocalDate.of(2026, 12, 1));
+        criteria.setTo(LocalDate.of(2027, 1, 1));
+        Pageable pageable = PageRequest.of(0, 10);
+        given(reservationRepository.findAll(ArgumentMatchers.<Specification<Reservation>>any(), eq(pageable)))
+                .willReturn(new PageImpl<>(List.of(reservation), pageable, 11));
+        given(reservationMapper.toReservationDto(reservation)).willReturn(reservationDTO);
+
+        Page<ReservationDTO> page = reservationService.searchReservations(criteria, pageable);
+
+        assertThat(page.getContent()).containsExactly(reservationDTO);
+        assertThat(page.getTotalElements()).isEqualTo(11);
+        assertThat(page.getTotalPages()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectEmptyDateWindowWhenSearchingReservations() {
+        ReservationSearchCriteria criteria = new ReservationSearchCriteria();
+        criteria.setFrom(LocalDate.of(2026, 12, 1));
+        criteria.setTo(LocalDate.of(2026, 12, 1));
+
+        Throwable thrown = catchThrowable(() -> reservationService.searchReservations(criteria, PageRequest.of(0, 10)));
+
+        assertThat(thrown).isInstanceOf(InvalidRequestParameterException.class);
+        then(reservationRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void shouldRejectSortingReservationsThroughTheClient() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("clientId.password"));
+
+        Throwable thrown = catchThrowable(() -> reservationService.searchReservations(new ReservationSearchCriteria(), pageable));
+
+        assertThat(thrown).isInstanceOf(InvalidRequestParameterException.class);
+        then(reservationRepository).shouldHaveNoInteractions();
+    }
+
     @Test
     void shouldReturnReservationsForClient() {
         given(clientRepository.findById(1L)).willReturn(Optional.of(client));
@@ -272,4 +361,66 @@ public class ReservationServiceTests extends BaseTestsSetup {
         assertEquals("For a DELUXE room, the number of guests must be between 1 and 5.", exception.getMessage());
     }
 
+    @Test
+    void shouldListUnavailableDatesFromDatabaseInOrder() {
+        given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+        given(reservationRepository.findStaysOfRoom(1L, null, null)).willReturn(List.of(
+                stay(1L, LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 8)),
+                stay(2L, LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 12))));
+
+        assertThat(reservationService.getUnavailableDatesForRoom(1L)).containsExactly(
+                LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 6), LocalDate.of(2026, 1, 7),
+                LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 11));
+        then(roomAvailabilityIndex).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void shouldMergeBackToBackStaysIntoOneRange() {
+        given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+        given(reservationRepository.findStaysOfRoom(1L, null, null)).willReturn(List.of(
+                stay(1L, LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 8)),
+                stay(4L, LocalDate.of(2026, 1, 8), LocalDate.of(2026, 1, 10)),
+                stay(2L, LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 12))));
+
+        assertThat(reservationService.getUnavailableRangesForRoom(1L, null, null)).containsExactly(
+                new DateRangeDTO(LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 12)));
+    }
+
+    @Test
+    void shouldClipRangesToWindow() {
+        LocalDate from = LocalDate.of(2026, 1, 6);
+        LocalDate to = LocalDate.of(2026, 1, 11);
+        given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+        given(reservationRepository.findStaysOfRoom(1L, from, to)).willReturn(List.of(
+                stay(1L, LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 8)),
+                stay(2L, LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 12))));
+
+        assertThat(reservationService.getUnavailableRangesForRoom(1L, from, to)).containsExactly(
+                new DateRangeDTO(LocalDate.of(2026, 1, 6), LocalDate.of(2026, 1, 8)),
+                new DateRangeDTO(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 11)));
+    }
+
+    private static ReservationStay stay(Long id, LocalDate checkIn, LocalDate checkOut) {
+        return new ReservationStay() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getRoomId() {
+                return 1L;
+            }
+
+            @Override
+            public LocalDate getCheckInDate() {
+                return checkIn;
+            }
+
+            @Override
+            public LocalDate getCheckOutDate() {
+                return checkOut;
+            }
+        };
+    }
 }
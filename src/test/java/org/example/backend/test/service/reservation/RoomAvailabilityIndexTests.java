@@ -0,0 +1,102 @@
+package org.example.backend.test.service.reservation;
+
+import org.example.backend.model.Reservation;
+import org.example.backend.model.Room;
+import org.example.backend.repository.reservation.ReservationRepository;
+import org.example.backend.repository.reservation.ReservationStay;
+import org.example.backend.service.reservation.RoomAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class RoomAvailabilityIndexTests {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @InjectMocks
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        given(reservationRepository.findAllStays()).willReturn(List.of(
+                stay(1L, 1L, LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 8)),
+                stay(2L, 1L, LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 12)),
+                stay(3L, 2L, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31))
+        ));
+        availabilityIndex.load();
+    }
+
+    @Test
+    void shouldDetectOverlappingStay() {
+        assertThat(availabilityIndex.isBooked(1L, LocalDate.of(2026, 1, 7), LocalDate.of(2026, 1, 9), null)).isTrue();
+        assertThat(availabilityIndex.isBooked(1L, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 20), null)).isTrue();
+        assertThat(availabilityIndex.isBooked(2L, LocalDate.of(2026, 1, 20), LocalDate.of(2026, 1, 21), null)).isTrue();
+    }
+
+    @Test
+    void shouldAllowBackToBackStays() {
+        assertThat(availabilityIndex.isBooked(1L, LocalDate.of(2026, 1, 8), LocalDate.of(2026, 1, 10), null)).isFalse();
+        assertThat(availabilityIndex.isBooked(1L, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), null)).isFalse();
+        assertThat(availabilityIndex.isBooked(3L, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), null)).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreReservationBeingUpdated() {
+        assertThat(availabilityIndex.isBooked(1L, LocalDate.of(2026, 1, 6), LocalDate.of(2026, 1, 9), 1L)).isFalse();
+    }
+
+    @Test
+    void shouldMoveReservationOnUpdateAndForgetItOnDelete() {
+        Room room = new Room();
+        room.setId(1L);
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setRoomId(room);
+        reservation.setCheckInDate(LocalDate.of(2026, 2, 1));
+        reservation.setCheckOutDate(LocalDate.of(2026, 2, 3));
+
+        availabilityIndex.put(reservation);
+
+        assertThat(availabilityIndex.isBooked(1L, LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 8), null)).isFalse();
+        assertThat(availabilityIndex.isBooked(1L, LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 4), null)).isTrue();
+
+        availabilityIndex.remove(1L);
+
+        assertThat(availabilityIndex.isBooked(1L, LocalDate.of(2026, 2, 2), LocalDate.of(2026, 2, 4), null)).isFalse();
+    }
+
+    private static ReservationStay stay(Long id, Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        return new ReservationStay() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getRoomId() {
+                return roomId;
+            }
+
+            @Override
+            public LocalDate getCheckInDate() {
+                return checkIn;
+            }
+
+            @Override
+            public LocalDate getCheckOutDate() {
+                return checkOut;
+            }
+        };
+    }
+}
@@ -9,7 +9,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -93,23 +92,33 @@ class AmenityServiceTests extends BaseTestsSetup {
     }
 
     @Test
-    void shouldUpdateRoomPriceWhenAmenityUpdated() {
-        room.setPrice(150.00);
-        amenityFreeWifi.setRooms(Collections.singletonList(room));
-
+    void shouldNotRewriteRoomsWhenAmenityCostUpdated() {
         given(amenityRepository.findById(1L)).willReturn(Optional.of(amenityFreeWifi));
         given(amenityRepository.save(amenityFreeWifi)).willReturn(amenityFreeWifi);
         given(amenityMapper.toAmenityDTO(amenityFreeWifi)).willReturn(amenityDTOFreeWifi);
-        given(roomRepository.save(room)).willReturn(room);
 
         amenityDTOFreeWifi.setAdditionalCost(10.00);
 
         AmenityDTO updatedAmenityDTO = amenityService.updateAmenity(1L, amenityDTOFreeWifi);
 
-        double expectedRoomPrice = 150.00 - 0.00 + 10.00;
         assertThat(updatedAmenityDTO).isNotNull();
-        assertThat(room.getPrice()).isEqualTo(expectedRoomPrice);
-        verify(roomRepository).save(room);
+        then(roomRepository).shouldHaveNoInteractions();
+        then(roomSearchCacheInvalidator).should().allRoomsChanged();
+        then(roomPricingService).should().allPricesChanged();
+    }
+
+    @Test
+    void shouldKeepCachedSearchesWhenAmenityCostUnchanged() {
+        amenityDTOFreeWifi.setDescription("Faster wireless internet access");
+        given(amenityRepository.findById(1L)).willReturn(Optional.of(amenityFreeWifi));
+        given(amenityRepository.save(amenityFreeWifi)).willReturn(amenityFreeWifi);
+        given(amenityMapper.toAmenityDTO(amenityFreeWifi)).willReturn(amenityDTOFreeWifi);
+
+        amenityService.updateAmenity(1L, amenityDTOFreeWifi);
+
+        then(roomRepository).shouldHaveNoInteractions();
+        then(roomSearchCacheInvalidator).shouldHaveNoInteractions();
+        then(roomPricingService).shouldHaveNoInteractions();
     }
 
     @Test
@@ -128,7 +137,22 @@ class AmenityServiceTests extends BaseTestsSetup {
 
         amenityService.deleteAmenity(1L);
 
-        verify(amenityRepository).delete(amenityFreeWifi);
+        verify(amenityRepository).deleteRoomAssignments(1L);
+        verify(amenityRepository).deleteAmenityById(1L);
+        then(roomRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void shouldInvalidateSearchesWhenDeletingPricedAmenityOfRooms() {
+        given(amenityRepository.findById(2L)).willReturn(Optional.of(amenityBreakfast));
+        given(amenityRepository.deleteRoomAssignments(2L)).willReturn(3);
+
+        amenityService.deleteAmenity(2L);
+
+        then(amenityRepository).should().deleteAmenityById(2L);
+        then(roomRepository).shouldHaveNoInteractions();
+        then(roomSearchCacheInvalidator).should().allRoomsChanged();
+        then(roomPricingService).should().allPricesChanged();
     }
 
     @Test
@@ -3,13 +3,21 @@ package org.example.backend.test.service.room;
 import org.example.backend.BaseTestsSetup;
 
 import org.example.backend.dtos.AmenityDTO;
+import org.example.backend.dtos.RoomDTO;
+import org.example.backend.dtos.RoomWithAmenitiesDTO;
 import org.example.backend.exception.exceptions.AmenityAlreadyAssignedException;
 import org.example.backend.exception.exceptions.NoSuchAmenityException;
 import org.example.backend.exception.exceptions.NoSuchRoomException;
 import org.example.backend.model.Amenity;
+import org.example.backend.repository.room.RoomAmenityRow;
+import org.example.backend.service.room.RoomPricingService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +40,8 @@ public class RoomAmenityServiceTests extends BaseTestsSetup {
         roomAmenityService.assignAmenityToRoom(1L, 1L);
 
         assertThat(room.getAmenities()).contains(amenityFreeWifi);
-        assertThat(room.getPrice()).isEqualTo(150.00 + 0.00);
+        assertThat(room.getBasePrice()).isEqualByComparingTo("150.00");
+        assertThat(RoomPricingService.nightlyPrice(room)).isEqualByComparingTo("150.00");
         then(roomRepository).should().save(room);
     }
 
@@ -96,7 +105,8 @@ public class RoomAmenityServiceTests extends BaseTestsSetup {
         roomAmenityService.removeAmenityFromRoom(1L, 1L);
 
         assertThat(room.getAmenities()).doesNotContain(amenityFreeWifi);
-        assertThat(room.getPrice()).isEqualTo(170.0);
+        assertThat(room.getBasePrice()).isEqualByComparingTo("150.00");
+        assertThat(RoomPricingService.nightlyPrice(room)).isEqualByComparingTo("170.00");
     }
 
     @Test
@@ -131,4 +141,34 @@ public class RoomAmenityServiceTests extends BaseTestsSetup {
 
         assertThat(thrown).isInstanceOf(NoSuchAmenityException.class);
     }
+
+    @Test
+    void shouldListRoomsWithTheirAmenitiesFromTwoQueries() {
+        RoomDTO roomWithoutAmenities = RoomDTO.builder().id(2L).roomNumber("102").build();
+        Pageable pageable = PageRequest.of(0, 2);
+        given(roomRepository.findRoomDTOSlice(pageable))
+                .willReturn(new SliceImpl<>(List.of(roomDTO, roomWithoutAmenities), pageable, true));
+        given(amenityRepository.findAmenitiesOfRooms(List.of(1L, 2L))).willReturn(List.of(
+                new RoomAmenityRow(1L, 2L, "Breakfast", "A delicious continental breakfast", 20.00),
+                new RoomAmenityRow(1L, 1L, "Free WiFi", "High-speed wireless internet access", 0.00)));
+
+        Slice<RoomWithAmenitiesDTO> rooms = roomAmenityService.getRoomsWithAmenities(pageable);
+
+        assertThat(rooms.hasNext()).isTrue();
+        assertThat(rooms.getContent()).extracting(RoomWithAmenitiesDTO::getRoom)
+                .containsExactly(roomDTO, roomWithoutAmenities);
+        assertThat(rooms.getContent()).extracting(RoomWithAmenitiesDTO::getAmenities)
+                .containsExactly(List.of(amenityDTOBreakfast, amenityDTOFreeWifi), List.of());
+    }
+
+    @Test
+    void shouldNotQueryAmenitiesForEmptySlice() {
+        Pageable pageable = PageRequest.of(3, 2);
+        given(roomRepository.findRoomDTOSlice(pageable)).willReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        Slice<RoomWithAmenitiesDTO> rooms = roomAmenityService.getRoomsWithAmenities(pageable);
+
+        assertThat(rooms.hasContent()).isFalse();
+        then(amenityRepository).shouldHaveNoInteractions();
+    }
 }
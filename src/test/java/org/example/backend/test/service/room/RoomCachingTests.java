@@ -0,0 +1,85 @@
+package org.example.backend.test.service.room;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.backend.configs.CacheConfiguration;
+import org.example.backend.dtos.RoomDTO;
+import org.example.backend.mappers.RoomMapper;
+import org.example.backend.model.Room;
+import org.example.backend.repository.reservation.ReservationRepository;
+import org.example.backend.repository.room.RoomCriteriaRepository;
+import org.example.backend.repository.room.RoomRepository;
+import org.example.backend.service.room.RoomPricingService;
+import org.example.backend.service.room.RoomSearchCacheInvalidator;
+import org.example.backend.service.room.RoomService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@SpringJUnitConfig({CacheConfiguration.class, RoomService.class})
+@TestPropertySource(properties = {
+        "hotel.cache.room-search.spec=maximumSize=10",
+        "hotel.cache.rooms.spec=maximumSize=10",
+        "hotel.cache.amenities.spec=maximumSize=10",
+        "hotel.cache.room-amenities.spec=maximumSize=10",
+        "hotel.cache.room-prices.spec=maximumSize=10"
+})
+class RoomCachingTests {
+
+    @MockBean
+    private RoomRepository roomRepository;
+
+    @MockBean
+    private RoomCriteriaRepository roomCriteriaRepository;
+
+    @MockBean
+    private RoomMapper roomMapper;
+
+    @MockBean
+    private ReservationRepository reservationRepository;
+
+    @MockBean
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private RoomSearchCacheInvalidator searchCacheInvalidator;
+
+    @MockBean
+    private RoomPricingService roomPricingService;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Test
+    void shouldReadRoomThroughCacheAndWriteUpdatesThrough() {
+        Room room = new Room();
+        room.setId(7L);
+        room.setRoomNumber("107");
+        room.setPrice(120.0);
+        RoomDTO cached = RoomDTO.builder().id(7L).roomNumber("107").price(120.0).build();
+        RoomDTO updated = RoomDTO.builder().id(7L).roomNumber("107").price(140.0).build();
+        given(roomRepository.findById(7L)).willReturn(Optional.of(room));
+        given(roomPricingService.getNightlyPrice(7L)).willReturn(new BigDecimal("120.00"));
+        given(roomRepository.save(any(Room.class))).willReturn(room);
+        given(roomMapper.toRoomDto(room)).willReturn(cached, updated);
+
+        assertThat(roomService.getRoom(7L)).isEqualTo(cached);
+        assertThat(roomService.getRoom(7L)).isEqualTo(cached);
+        then(roomRepository).should(times(1)).findById(7L);
+
+        roomService.updateRoom(7L, updated);
+
+        assertThat(roomService.getRoom(7L)).isEqualTo(updated);
+        then(roomMapper).should(times(2)).toRoomDto(room);
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.backend.test.service.room;
+
+import org.example.backend.configs.CacheConfiguration;
+import org.example.backend.exception.exceptions.NoSuchRoomException;
+import org.example.backend.model.Amenity;
+import org.example.backend.model.Room;
+import org.example.backend.repository.room.RoomRepository;
+import org.example.backend.service.room.RoomPricingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class RoomPricingServiceTests {
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache roomPrices;
+
+    @InjectMocks
+    private RoomPricingService roomPricingService;
+
+    @Test
+    void shouldAddAmenityCostsToBasePriceExactly() {
+        Room room = new Room();
+        room.setBasePrice(new BigDecimal("99.90"));
+        room.setAmenities(new ArrayList<>(List.of(amenity(0.10), amenity(0.20), amenity(12.35))));
+
+        assertThat(RoomPricingService.nightlyPrice(room)).isEqualByComparingTo("112.55");
+    }
+
+    @Test
+    void shouldPriceRoomWithoutAmenitiesAtItsBasePrice() {
+        Room room = new Room();
+        room.setBasePrice(new BigDecimal("80.00"));
+
+        assertThat(RoomPricingService.nightlyPrice(room)).isEqualByComparingTo("80.00");
+    }
+
+    @Test
+    void shouldReadNightlyPriceFromDatabase() {
+        given(roomRepository.findNightlyPrice(1L)).willReturn(Optional.of(new BigDecimal("170.00")));
+
+        assertThat(roomPricingService.getNightlyPrice(1L)).isEqualByComparingTo("170.00");
+    }
+
+    @Test
+    void shouldRejectPriceOfUnknownRoom() {
+        given(roomRepository.findNightlyPrice(42L)).willReturn(Optional.empty());
+
+        Throwable thrown = catchThrowable(() -> roomPricingService.getNightlyPrice(42L));
+
+        assertThat(thrown).isInstanceOf(NoSuchRoomException.class).hasMessage("Room not found!");
+    }
+
+    @Test
+    void shouldEvictChangedPriceOutsideTransactionOnce() {
+        given(cacheManager.getCache(CacheConfiguration.ROOM_PRICES)).willReturn(roomPrices);
+
+        roomPricingService.priceChanged(3L);
+
+        then(roomPrices).should(times(1)).evict(3L);
+    }
+
+    @Test
+    void shouldEvictChangedPriceAgainWhenTransactionCommits() {
+        given(cacheManager.getCache(CacheConfiguration.ROOM_PRICES)).willReturn(roomPrices);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            roomPricingService.allPricesChanged();
+            then(roomPrices).should(times(1)).clear();
+
+            // The transaction that changed the prices commits
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        then(roomPrices).should(times(2)).clear();
+    }
+
+    private static Amenity amenity(double additionalCost) {
+        Amenity amenity = new Amenity();
+        amenity.setAdditionalCost(additionalCost);
+        return amenity;
+    }
+}
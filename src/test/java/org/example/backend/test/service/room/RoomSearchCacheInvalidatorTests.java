@@ -0,0 +1,86 @@
+package org.example.backend.test.service.room;
+
+import org.example.backend.configs.CacheConfiguration;
+import org.example.backend.criteria.RoomSearchCriteria;
+import org.example.backend.criteria.RoomSearchKey;
+import org.example.backend.enums.RoomType;
+import org.example.backend.service.room.RoomSearchCacheInvalidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomSearchCacheInvalidatorTests {
+
+    private Cache cache;
+    private RoomSearchCacheInvalidator invalidator;
+
+    private RoomSearchKey allRooms;
+    private RoomSearchKey cheapSingles;
+    private RoomSearchKey doublesInDecember;
+    private RoomSearchKey doublesInJanuary;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager cacheManager = new CacheConfiguration().cacheManager("maximumSize=100", "maximumSize=10",
+                "maximumSize=10", "maximumSize=10", "maximumSize=10");
+        cache = cacheManager.getCache(CacheConfiguration.ROOM_SEARCH);
+        invalidator = new RoomSearchCacheInvalidator(cacheManager);
+
+        allRooms = key(null, null, null, null, null);
+        cheapSingles = key(RoomType.SINGLE, null, 100.0, null, null);
+        doublesInDecember = key(RoomType.DOUBLE, null, null, LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 7));
+        doublesInJanuary = key(RoomType.DOUBLE, null, null, LocalDate.of(2027, 1, 10), LocalDate.of(2027, 1, 14));
+        for (RoomSearchKey key : List.of(allRooms, cheapSingles, doublesInDecember, doublesInJanuary)) {
+            cache.put(key, List.of());
+        }
+    }
+
+    @Test
+    void shouldEvictSearchesMatchingChangedRoom() {
+        invalidator.roomChanged(RoomType.SINGLE, 150.0);
+
+        assertThat(cache.get(allRooms)).isNull();
+        assertThat(cache.get(cheapSingles)).isNotNull();
+        assertThat(cache.get(doublesInDecember)).isNotNull();
+        assertThat(cache.get(doublesInJanuary)).isNotNull();
+    }
+
+    @Test
+    void shouldEvictOnlySearchesOverlappingChangedStay() {
+        invalidator.stayChanged(RoomType.DOUBLE, 200.0, LocalDate.of(2026, 12, 5), LocalDate.of(2026, 12, 9));
+
+        assertThat(cache.get(doublesInDecember)).isNull();
+        assertThat(cache.get(allRooms)).isNotNull();
+        assertThat(cache.get(cheapSingles)).isNotNull();
+        assertThat(cache.get(doublesInJanuary)).isNotNull();
+    }
+
+    @Test
+    void shouldIgnoreParametersTheSearchDoesNotApply() {
+        RoomSearchCriteria criteria = new RoomSearchCriteria(Optional.of("asc"), Optional.empty());
+        criteria.setType(RoomType.DOUBLE);
+        criteria.setAvailable(true);
+        criteria.setCheckInDate(LocalDate.of(2026, 12, 1));
+
+        assertThat(RoomSearchKey.of(criteria, PageRequest.of(0, 20)))
+                .isEqualTo(key(RoomType.DOUBLE, null, null, null, null));
+    }
+
+    private static RoomSearchKey key(RoomType type, Double minPrice, Double maxPrice, LocalDate checkIn, LocalDate checkOut) {
+        RoomSearchCriteria criteria = new RoomSearchCriteria(Optional.empty(), Optional.empty());
+        criteria.setType(type);
+        criteria.setMinPrice(minPrice);
+        criteria.setMaxPrice(maxPrice);
+        criteria.setCheckInDate(checkIn);
+        criteria.setCheckOutDate(checkOut);
+        return RoomSearchKey.of(criteria, PageRequest.of(0, 20));
+    }
+}
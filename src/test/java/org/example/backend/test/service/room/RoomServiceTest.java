@@ -2,30 +2,46 @@ package org.example.backend.test.service.room;
 
 import org.example.backend.BaseTestsSetup;
 import org.example.backend.criteria.RoomSearchCriteria;
+import org.example.backend.dtos.MultipleRoomsResultDTO;
 import org.example.backend.dtos.RoomDTO;
+import org.example.backend.dtos.RoomDeletionResultDTO;
+import org.example.backend.dtos.RoomOccupancyDTO;
 import org.example.backend.enums.RoomType;
+import org.example.backend.exception.exceptions.InvalidRequestParameterException;
 import org.example.backend.exception.exceptions.NoSuchRoomException;
 import org.example.backend.exception.exceptions.RoomDeletionException;
 import org.example.backend.exception.exceptions.RoomNumberAlreadyExistsException;
-import org.example.backend.model.Reservation;
 import org.example.backend.model.Room;
+import org.example.backend.repository.room.RoomOccupancyRow;
+import org.example.backend.service.room.RoomService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -57,12 +73,14 @@ public class RoomServiceTest extends BaseTestsSetup {
     @Test
     void shouldFetchRoomByIdSuccessfully() {
         given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+        given(roomPricingService.getNightlyPrice(1L)).willReturn(new BigDecimal("170.00"));
         given(roomMapper.toRoomDto(room)).willReturn(roomDTO);
 
         RoomDTO fetchedRoom = roomService.getRoom(1L);
 
         assertThat(fetchedRoom).isNotNull();
         assertThat(fetchedRoom.getRoomNumber()).isEqualTo("101");
+        assertThat(room.getPrice()).isEqualTo(170.00);
     }
 
     @Test
@@ -87,6 +105,45 @@ public class RoomServiceTest extends BaseTestsSetup {
         assertThat(updatedRoom).isNotNull();
         assertThat(updatedRoom.getRoomNumber()).isEqualTo("102");
         then(roomRepository).should().save(room);
+        then(roomSearchCacheInvalidator).should(times(2)).roomChanged(RoomType.SINGLE, 150.00);
+    }
+
+    @Test
+    void shouldInvalidateSearchesOfOldAndNewPriceOnUpdate() {
+        roomDTO.setPrice(90.00);
+        given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+        given(roomRepository.save(room)).willReturn(room);
+
+        roomService.updateRoom(1L, roomDTO);
+
+        then(roomSearchCacheInvalidator).should().roomChanged(RoomType.SINGLE, 150.00);
+        then(roomSearchCacheInvalidator).should().roomChanged(RoomType.SINGLE, 90.00);
+        then(roomPricingService).should().priceChanged(1L);
+    }
+
+    @Test
+    void shouldTakeAmenityCostOffPriceSentWithoutBasePrice() {
+        room.setAmenities(new ArrayList<>(List.of(amenityBreakfast)));
+        roomDTO.setPrice(170.00);
+        given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+        given(roomRepository.save(room)).willReturn(room);
+
+        roomService.updateRoom(1L, roomDTO);
+
+        assertThat(room.getBasePrice()).isEqualByComparingTo("150.00");
+        assertThat(room.getPrice()).isEqualTo(170.00);
+    }
+
+    @Test
+    void shouldRejectPriceBelowAmenityCostSentWithoutBasePrice() {
+        room.setAmenities(new ArrayList<>(List.of(amenityBreakfast)));
+        roomDTO.setPrice(20.00);
+        given(roomRepository.findById(1L)).willReturn(Optional.of(room));
+
+        Throwable thrown = catchThrowable(() -> roomService.updateRoom(1L, roomDTO));
+
+        assertThat(thrown).isInstanceOf(InvalidRequestParameterException.class);
+        then(roomRepository).should(never()).save(room);
     }
 
     @Test
@@ -100,9 +157,7 @@ public class RoomServiceTest extends BaseTestsSetup {
 
     @Test
     void shouldFetchAllRoomsDTO() {
-        List<Room> rooms = List.of(room);
-        given(roomRepository.findAll()).willReturn(rooms);
-        given(roomMapper.toRoomDTOList(rooms)).willReturn(List.of(roomDTO));
+        given(roomRepository.findAllRoomDTOs()).willReturn(List.of(roomDTO));
 
         List<RoomDTO> roomDTOList = roomService.getAllRoomsDTO();
 
@@ -150,63 +205,95 @@ public class RoomServiceTest extends BaseTestsSetup {
 
 
     @Test
-    void shouldCreateMultipleRooms() {
-        int numberOfRooms = 5;
-        String startRoomNumber = "101";
-        double price = 150.00;
-        RoomType roomType = RoomType.SINGLE;
-
-        List<RoomDTO> createdRoomDTOs = new ArrayList<>();
-        List<Room> createdRooms = new ArrayList<>();
-        given(roomRepository.existsByRoomNumber("101")).willReturn(true);
+    void shouldStreamOccupancyCalendarAsOneBitsetPerRoom() throws Exception {
+        RoomSearchCriteria criteria = new RoomSearchCriteria(Optional.empty(), Optional.empty());
+        LocalDate from = LocalDate.of(2026, 12, 1);
+        LocalDate to = LocalDate.of(2026, 12, 11);
+        given(roomCriteriaRepository.streamOccupancy(criteria, from, to)).willReturn(Stream.of(
+                new RoomOccupancyRow(1L, "101", LocalDate.of(2026, 11, 28), LocalDate.of(2026, 12, 3)),
+                new RoomOccupancyRow(1L, "101", LocalDate.of(2026, 12, 9), LocalDate.of(2026, 12, 20)),
+                new RoomOccupancyRow(2L, "102", null, null)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        roomService.writeOccupancyCalendar(criteria, from, to, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        RoomOccupancyDTO first = objectMapper.readValue(lines[0], RoomOccupancyDTO.class);
+        RoomOccupancyDTO second = objectMapper.readValue(lines[1], RoomOccupancyDTO.class);
+        assertThat(first.getRoomNumber()).isEqualTo("101");
+        assertThat(BitSet.valueOf(Base64.getDecoder().decode(first.getOccupancy())))
+                .isEqualTo(BitSet.valueOf(new long[]{0b11_0000_0011L}));
+        assertThat(Base64.getDecoder().decode(second.getOccupancy())).containsExactly(0, 0);
+    }
 
-        for (int i = 0; i < numberOfRooms; i++) {
-            String roomNumber = String.valueOf(Integer.parseInt(startRoomNumber) + i);
+    @Test
+    void shouldRejectTooLongCalendarWindow() {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = from.plusDays(RoomService.MAX_CALENDAR_DAYS + 1L);
 
-            RoomDTO roomDTO = new RoomDTO();
-            roomDTO.setRoomNumber(roomNumber);
-            roomDTO.setAvailable(true);
-            roomDTO.setType(roomType);
-            roomDTO.setPrice(price);
-            createdRoomDTOs.add(roomDTO);
+        Throwable thrown = catchThrowable(() -> roomService.validateCalendarWindow(from, to));
 
-            Room room = new Room();
-            room.setRoomNumber(roomNumber);
-            room.setAvailable(true);
-            room.setType(roomType);
-            room.setPrice(price);
-            createdRooms.add(room);
+        assertThat(thrown).isInstanceOf(InvalidRequestParameterException.class);
+    }
 
-            given(roomRepository.existsByRoomNumber(roomNumber)).willReturn(false);
-            given(roomMapper.toRoom(roomDTO)).willReturn(room);
-            given(roomRepository.save(room)).willReturn(room);
-            given(roomMapper.toRoomDto(room)).willReturn(roomDTO);
-        }
+    @Test
+    void shouldCreateMultipleRooms() {
+        List<Room> createdRooms = new ArrayList<>();
+        List<RoomDTO> createdRoomDTOs = new ArrayList<>();
+        given(roomRepository.findExistingRoomNumbers(List.of("101", "102", "103", "104", "105")))
+                .willReturn(Set.of("101", "104"));
+        given(roomRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Room> rooms = invocation.getArgument(0);
+            createdRooms.addAll(rooms);
+            return rooms;
+        });
+        given(roomMapper.toRoomDTOList(anyList())).willReturn(createdRoomDTOs);
+
+        MultipleRoomsResultDTO result = roomService.createRoomBlock("101", 5, 150.00, RoomType.SINGLE);
+
+        assertThat(createdRooms).extracting(Room::getRoomNumber).containsExactly("102", "103", "105");
+        assertThat(createdRooms).allSatisfy(created -> {
+            assertThat(created.getPrice()).isEqualTo(150.00);
+            assertThat(created.getBasePrice()).isEqualByComparingTo("150.00");
+            assertThat(created.getType()).isEqualTo(RoomType.SINGLE);
+            assertThat(created.isAvailable()).isTrue();
+        });
+        assertThat(result.getCreated()).isSameAs(createdRoomDTOs);
+        assertThat(result.getSkipped()).containsExactly("101", "104");
+        then(roomRepository).should(never()).existsByRoomNumber(anyString());
+        then(roomSearchCacheInvalidator).should().roomChanged(RoomType.SINGLE, 150.00);
+    }
 
-        List<RoomDTO> result = roomService.createMultipleRooms(startRoomNumber, numberOfRooms, price, roomType);
+    @Test
+    void shouldRejectRoomBlockNumberedPastFourDigits() {
+        Throwable thrown = catchThrowable(() -> roomService.createRoomBlock("9998", 5, 150.00, RoomType.SINGLE));
 
-        assertNotNull(result);
-        assertEquals(5, result.size());
+        assertThat(thrown).isInstanceOf(InvalidRequestParameterException.class)
+                .hasMessage("The last room of the block would be numbered above 9999.");
+        then(roomRepository).shouldHaveNoInteractions();
     }
 
     @Test
     void shouldDeleteAllRooms() {
-        given(roomRepository.findAll()).willReturn(List.of(room));
+        given(roomRepository.deleteAmenityLinksOfUnreservedRooms()).willReturn(4);
+        given(roomRepository.deleteUnreservedRooms()).willReturn(10);
+        given(roomRepository.count()).willReturn(2L);
 
-        roomService.deleteAllRooms();
+        RoomDeletionResultDTO result = roomService.deleteAllRooms();
 
-        verify(roomRepository).delete(room);
+        assertThat(result.getDeleted()).isEqualTo(10);
+        assertThat(result.getSkipped()).isEqualTo(2);
+        then(roomRepository).should(never()).findAll();
+        then(roomSearchCacheInvalidator).should().allRoomsChanged();
+        then(roomPricingService).should().allPricesChanged();
     }
 
     @Test
     void shouldThrowExceptionWhenRoomHasActiveReservationsAndCannotBeDeleted() {
-        Reservation reservation = new Reservation();
-        reservation.setRoomId(room);
-        reservation.setCheckInDate(LocalDate.of(2026, 12, 1));
-        reservation.setCheckOutDate(LocalDate.of(2026, 12, 7));
-
         given(roomRepository.findById(1L)).willReturn(Optional.of(room));
-        given(reservationRepository.findByRoomId(room)).willReturn(List.of(reservation));
+        given(reservationRepository.existsByRoomId_Id(1L)).willReturn(true);
 
         Throwable thrown = catchThrowable(() -> roomService.deleteRoom(1L));
 